@@ -0,0 +1,50 @@
+package com.sportify.benchmarks;
+
+import com.sportify.SportifyApplication;
+import com.sportify.entity.Role;
+import com.sportify.entity.User;
+import com.sportify.model.UserPrincipal;
+import com.sportify.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+// Full backend on in-memory H2 without the web server, for suites that
+// measure service methods end to end through JPA. Background workers that
+// would compete for CPU are slowed to a crawl.
+final class BackendContext {
+
+    private BackendContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        String journalDir;
+        try {
+            journalDir = Files.createTempDirectory("bench-cart-journal").toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        // Passed as arguments because builder properties are only defaults and
+        // application.properties would win over them
+        return new SpringApplicationBuilder(SportifyApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--app.email.transport=stub",
+                "--app.inventory.seed-quantity=10000000",
+                "--app.orders.pipeline.poll-interval=3600000",
+                "--app.cart.write-behind.journal-dir=" + journalDir);
+    }
+
+    static UserPrincipal createUser(ConfigurableApplicationContext context, String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Bench");
+        user.setPassword("not-a-hash");
+        user.setRole(Role.USER);
+        user.setEmailVerified(true);
+        user = context.getBean(UserRepository.class).save(user);
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), true);
+    }
+}
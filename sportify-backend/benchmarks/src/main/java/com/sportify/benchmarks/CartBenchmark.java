@@ -0,0 +1,82 @@
+package com.sportify.benchmarks;
+
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import com.sportify.entity.CartItem;
+import com.sportify.model.CartRequest;
+import com.sportify.model.UserPrincipal;
+import com.sportify.pricing.PriceQuote;
+import com.sportify.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CartService through the configured cart engine and H2, for a cart that
+// already holds every available SKU of the bundled catalog
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private UserPrincipal principal;
+    private CartRequest merge;
+
+    @Setup
+    public void setUp() {
+        context = BackendContext.start();
+        cartService = context.getBean(CartService.class);
+        principal = BackendContext.createUser(context, "cart-bench@example.com");
+        for (Product product : context.getBean(ProductCatalog.class).snapshot().all()) {
+            for (String size : product.availableSizes()) {
+                cartService.addToCart(principal, request(product.id(), size));
+            }
+        }
+        merge = request("nike-air-max-270", "UK 9");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Existing line, so this is the quantity merge rather than an insert
+    @Benchmark
+    public void addExisting() {
+        cartService.addToCart(principal, merge);
+    }
+
+    @Benchmark
+    public List<CartItem> getCart() {
+        return cartService.getCart(principal);
+    }
+
+    @Benchmark
+    public PriceQuote quote() {
+        return cartService.quote(principal);
+    }
+
+    private static CartRequest request(String productId, String size) {
+        CartRequest request = new CartRequest();
+        request.setProductId(productId);
+        request.setSize(size);
+        request.setQuantity(1);
+        return request;
+    }
+}
@@ -0,0 +1,46 @@
+package com.sportify.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+// The backend uses field injection and package-private @PostConstruct
+// methods; micro-benchmarks wire single components by hand through these
+// instead of starting a Spring context.
+final class Fields {
+
+    private Fields() {
+    }
+
+    static <T> T set(T target, String name, Object value) {
+        try {
+            Field field = find(target.getClass(), name);
+            field.setAccessible(true);
+            field.set(target, value);
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    static <T> T init(T target) {
+        try {
+            Method init = target.getClass().getDeclaredMethod("init");
+            init.setAccessible(true);
+            init.invoke(target);
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot initialise " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static Field find(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // keep walking up
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sportify.benchmarks;
+
+import com.sportify.inventory.SkuKey;
+import com.sportify.inventory.StockCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Reserve-and-release on the in-memory stock counters, single SKU (flash
+// sale) and spread across a cart's worth of SKUs, under thread contention
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class InventoryBenchmark {
+
+    private StockCounters counters;
+    private Map<SkuKey, Integer> hotLine;
+    private Map<SkuKey, Integer> cartLines;
+
+    @Setup
+    public void setUp() {
+        counters = new StockCounters();
+        SkuKey hot = SkuKey.of("hot-product", "UK 9");
+        counters.set(hot, Integer.MAX_VALUE / 2);
+        hotLine = Map.of(hot, 1);
+        cartLines = Map.of(
+            SkuKey.of("p-1", "M"), 1,
+            SkuKey.of("p-2", "L"), 2,
+            SkuKey.of("p-3", "UK 8"), 1);
+        cartLines.keySet().forEach(sku -> counters.set(sku, Integer.MAX_VALUE / 2));
+    }
+
+    @Benchmark
+    public SkuKey hotSku() {
+        SkuKey shortfall = counters.tryTake(hotLine);
+        if (shortfall == null) {
+            counters.giveBack(hotLine);
+        }
+        return shortfall;
+    }
+
+    @Benchmark
+    public SkuKey cart() {
+        SkuKey shortfall = counters.tryTake(cartLines);
+        if (shortfall == null) {
+            counters.giveBack(cartLines);
+        }
+        return shortfall;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sportify.benchmarks;
+
+import com.sportify.entity.Role;
+import com.sportify.entity.User;
+import com.sportify.service.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue, first-time verification (cache disabled) and the cached parse
+// every authenticated request takes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha256Signing";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(10_000);
+        uncached = jwtUtil(0);
+        user = new User();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+        user.setRole(Role.USER);
+        user.setEmailVerified(true);
+        token = cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseVerify() {
+        return uncached.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return cached.parseClaims(token);
+    }
+
+    private static JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil util = new JwtUtil();
+        Fields.set(util, "secret", SECRET);
+        Fields.set(util, "expiration", 86_400_000L);
+        Fields.set(util, "cacheMaxSize", cacheSize);
+        Fields.set(util, "cacheTtl", 300_000L);
+        Fields.set(util, "meterRegistry", new SimpleMeterRegistry());
+        return Fields.init(util);
+    }
+}
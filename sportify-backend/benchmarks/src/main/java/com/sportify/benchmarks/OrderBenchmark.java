@@ -0,0 +1,86 @@
+package com.sportify.benchmarks;
+
+import com.sportify.entity.Order;
+import com.sportify.entity.OrderItem;
+import com.sportify.entity.ShippingAddress;
+import com.sportify.model.OrderRequest;
+import com.sportify.model.UserPrincipal;
+import com.sportify.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// OrderService.createOrder end to end on H2: catalog pricing, stock
+// reservation, the order insert and the pipeline's first event
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        context = BackendContext.start();
+        orderService = context.getBean(OrderService.class);
+        principal = BackendContext.createUser(context, "order-bench@example.com");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // The service attaches the request's items to the new order, so every
+    // call needs its own request
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(principal, request());
+    }
+
+    private static OrderRequest request() {
+        ShippingAddress address = new ShippingAddress();
+        address.setFullName("Bench User");
+        address.setAddressLine1("12 MG Road");
+        address.setCity("Bengaluru");
+        address.setState("Karnataka");
+        address.setPinCode("560001");
+        address.setPhone("9876543210");
+
+        List<OrderItem> items = new ArrayList<>(3);
+        items.add(item("nike-air-max-270", "UK 9", 1));
+        items.add(item("nike-pegasus-premium", "UK 7", 2));
+        items.add(item("nike-tee-calling-skate", "M", 1));
+
+        OrderRequest request = new OrderRequest();
+        request.setShippingAddress(address);
+        request.setItems(items);
+        return request;
+    }
+
+    private static OrderItem item(String productId, String size, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sportify.benchmarks;
+
+import com.sportify.pricing.PriceCalculator;
+import com.sportify.pricing.PriceQuote;
+import com.sportify.pricing.PricingRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Fixed-point cart totals without the quote cache in front; the cached path
+// is covered by CartBenchmark.quote
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"3", "100"})
+    public int lines;
+
+    @Param({"true", "false"})
+    public boolean taxInclusive;
+
+    private long[] unitPaise;
+    private int[] quantities;
+    private PricingRules rules;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        unitPaise = new long[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPaise[i] = (999 + random.nextInt(20_000)) * 100L;
+            quantities[i] = 1 + random.nextInt(4);
+        }
+        rules = new PricingRules(1800, taxInclusive, 500_000, 10_000, "INR");
+    }
+
+    @Benchmark
+    public PriceQuote price() {
+        return PriceCalculator.price(unitPaise, quantities, rules);
+    }
+}
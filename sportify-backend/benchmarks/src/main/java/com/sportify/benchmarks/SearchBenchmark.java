@@ -0,0 +1,76 @@
+package com.sportify.benchmarks;
+
+import com.sportify.catalog.CatalogSnapshot;
+import com.sportify.catalog.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Catalog search on a synthetic catalog far larger than products.json,
+// so index lookups rather than fixed overhead dominate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] BRANDS = {"Nike", "Adidas", "Puma", "Asics", "Reebok", "Skechers"};
+    private static final String[] MODELS = {"Pegasus", "Ultraboost", "Velocity", "Gel Kayano", "Zoom Vapor", "Air Max"};
+    private static final String[] TYPES = {"Running Shoes", "Training Tee", "Track Jacket", "Shorts", "Socks"};
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String type = TYPES[random.nextInt(TYPES.length)];
+            String name = brand + " " + MODELS[random.nextInt(MODELS.length)] + " " + i;
+            catalog.add(new Product("p-" + i, brand, name, random.nextBoolean() ? "Men" : "Women", type,
+                    999 + random.nextInt(20_000), "INR", name + " " + type, List.of("/img/p-" + i + ".jpg"),
+                    List.of(new Product.ProductColor("Black", "#000000")), List.of("S", "M", "L"),
+                    List.of("M", "L"), "SKU-" + i, "India"));
+        }
+        snapshot = CatalogSnapshot.of(catalog);
+    }
+
+    @Benchmark
+    public List<Product> exact() {
+        return snapshot.search("pegasus", 20);
+    }
+
+    @Benchmark
+    public List<Product> multiTerm() {
+        return snapshot.search("nike running shoes", 20);
+    }
+
+    @Benchmark
+    public List<Product> prefix() {
+        return snapshot.search("ultrab", 20);
+    }
+
+    @Benchmark
+    public List<Product> typo() {
+        return snapshot.search("pegasis", 20);
+    }
+}
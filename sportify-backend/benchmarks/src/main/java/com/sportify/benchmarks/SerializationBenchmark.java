@@ -0,0 +1,120 @@
+package com.sportify.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sportify.entity.CartItem;
+import com.sportify.entity.Order;
+import com.sportify.entity.OrderItem;
+import com.sportify.entity.OrderStatus;
+import com.sportify.model.CartItemResponse;
+import com.sportify.model.OrderHistoryPage;
+import com.sportify.model.OrderSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> response record mapping plus JSON writing for the two largest
+// payloads: GET /api/cart and GET /api/orders/history
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int lines;
+
+    private ObjectMapper mapper;
+    private List<CartItem> cart;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        // Same modules and features Boot applies, plus JacksonConfig's Blackbird
+        mapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            CartItem item = new CartItem();
+            item.setId((long) i);
+            item.setProductId("product-" + i);
+            item.setProductName("Running Shoe " + i);
+            item.setProductImage("/images/products/product-" + i + ".jpg");
+            item.setPrice(4995.0 + i);
+            item.setQuantity(1 + i % 3);
+            item.setSize("UK " + (6 + i % 5));
+            item.setCreatedAt(LocalDateTime.now());
+            cart.add(item);
+        }
+
+        // One history page of orders, each with a few lines
+        orders = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setOrderNumber("ORD-" + (1_000_000 + i));
+            order.setTotalAmount(12_985.0 + i);
+            order.setStatus(OrderStatus.CONFIRMED);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setShippingName("Bench User");
+            order.setShippingAddress("12 MG Road, Near Metro Station");
+            order.setShippingCity("Bengaluru");
+            order.setShippingState("Karnataka");
+            order.setShippingPin("560001");
+            order.setShippingPhone("9876543210");
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                OrderItem item = new OrderItem();
+                item.setProductId("product-" + j);
+                item.setProductName("Running Shoe " + j);
+                item.setProductImage("/images/products/product-" + j + ".jpg");
+                item.setPrice(4995.0);
+                item.setQuantity(1);
+                item.setSize("UK 9");
+                item.setColor("Black");
+                items.add(item);
+            }
+            order.setItems(items);
+            orders.add(order);
+        }
+    }
+
+    @Benchmark
+    public byte[] cartResponse() throws Exception {
+        List<CartItemResponse> response = new ArrayList<>(cart.size());
+        for (CartItem item : cart) {
+            response.add(CartItemResponse.from(item));
+        }
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] orderHistoryResponse() throws Exception {
+        List<OrderSummary> summaries = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            summaries.add(OrderSummary.from(order));
+        }
+        return mapper.writeValueAsBytes(new OrderHistoryPage(summaries, "cursor"));
+    }
+
+    @Benchmark
+    public byte[] orderResponse() throws Exception {
+        return mapper.writeValueAsBytes(OrderSummary.from(orders.get(0)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.sportify.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Every sample for one endpoint, kept raw so percentiles are exact. A run is
+// a few hundred thousand requests at most, so memory is not a concern.
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean ok) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSec", round(count / (elapsedNanos / 1e9)));
+        summary.put("meanMs", count > 0 ? millis(total / count) : 0.0);
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p90Ms", millis(percentile(sorted, 0.90)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("p999Ms", millis(percentile(sorted, 0.999)));
+        summary.put("maxMs", count > 0 ? millis(sorted[count - 1]) : 0.0);
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,480 @@
+package com.sportify.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sportify.SportifyApplication;
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import com.sportify.email.StubEmailTransport;
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Boots the backend in-process on H2 with the stub mail transport and drives
+// full user journeys over HTTP:
+//   signup -> verify-otp -> login -> cart add x N -> order create -> my-orders
+// OTPs are read from the stub transport's in-memory inbox. Latency
+// percentiles and throughput per endpoint are printed and written as JSON so
+// runs can be compared.
+//
+// Journeys are chains of async HTTP calls rather than threads, so
+// --concurrency is the number of client connections held open at once and is
+// not capped by the harness's own thread count.
+//
+// Each journey presents its own client IP in X-Forwarded-For (Tomcat's
+// RemoteIpValve is switched on for the run), so the auth rate limiter stays
+// at its configured limits. With --attack-rate, a fixed set of attacker IPs
+// also sends login, sign-in OTP and signup requests at a steady rate while
+// the measured journeys run, and both sides are reported separately.
+//
+// Harness options (all --key=value): users, concurrency, cart-adds, warmup,
+// mail-latency, mail-jitter, mail-failure-rate, otp-timeout, request-timeout,
+// attack-rate, attack-ips, attack-emails, attack-concurrency, out. Any other
+// argument is passed to the application, e.g. --app.password.bcrypt-cost=8.
+public final class LoadHarness {
+
+    private static final List<String> HARNESS_OPTIONS = List.of("users", "concurrency", "cart-adds", "warmup",
+            "mail-latency", "mail-jitter", "mail-failure-rate", "otp-timeout", "request-timeout",
+            "attack-rate", "attack-ips", "attack-emails", "attack-concurrency", "out");
+
+    private static final Pattern OTP = Pattern.compile("Verification Code: (\\d+)");
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final String LEGIT_AUTH = "AUTH legit (all)";
+    private static final String ATTACK_AUTH = "AUTH attack (all)";
+    private static final List<String> ATTACK_PATHS =
+            List.of("/api/auth/login", "/api/auth/signin/request-otp", "/api/auth/signup");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, LatencyRecorder> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong completedJourneys = new AtomicLong();
+    private final AtomicLong failedJourneys = new AtomicLong();
+    private final Map<String, OtpWait> otpWaits = new ConcurrentHashMap<>();
+    private final AtomicLong clientIps = new AtomicLong();
+    private final AtomicLong legitThrottled = new AtomicLong();
+    private final Map<Integer, AtomicLong> attackStatuses = new ConcurrentHashMap<>();
+    private final AtomicLong attackSkipped = new AtomicLong();
+
+    private final Map<String, String> options;
+    private final int cartAdds;
+    private final long otpTimeoutMillis;
+    private final Duration requestTimeout;
+    private final int attackRate;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private HttpClient http;
+    private ScheduledExecutorService otpTimeouts;
+    private String baseUrl;
+    private StubEmailTransport mail;
+    private List<String[]> skus;
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = options;
+        this.cartAdds = intOption("cart-adds", 3);
+        this.otpTimeoutMillis = intOption("otp-timeout", 30_000);
+        this.requestTimeout = Duration.ofMillis(intOption("request-timeout", 30_000));
+        this.attackRate = intOption("attack-rate", 0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (key != null && HARNESS_OPTIONS.contains(key)) {
+                options.put(key, arg.substring(eq + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        new LoadHarness(options).run(appArgs);
+    }
+
+    private void run(List<String> appArgs) throws Exception {
+        int users = intOption("users", 200);
+        int concurrency = intOption("concurrency", 32);
+        int warmup = intOption("warmup", Math.min(users, 20));
+        checkFileLimit(concurrency);
+
+        ConfigurableApplicationContext context = start(appArgs, users + warmup, concurrency);
+        ExecutorService httpThreads = Executors.newFixedThreadPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+        otpTimeouts = Executors.newSingleThreadScheduledExecutor();
+        try {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            mail = context.getBean(StubEmailTransport.class);
+            mail.onSent(this::otpDelivered);
+            skus = availableSkus(context.getBean(ProductCatalog.class));
+            http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpThreads)
+                .build();
+
+            drive(warmup, concurrency, "warmup");
+            endpoints.clear();
+            completedJourneys.set(0);
+            failedJourneys.set(0);
+            legitThrottled.set(0);
+
+            long mailFailuresBefore = mail.getFailedCount();
+            Instant startedAt = Instant.now();
+            long started = System.nanoTime();
+            ScheduledExecutorService attack = attackRate > 0 ? startAttack() : null;
+            try {
+                drive(users, concurrency, "run");
+            } finally {
+                if (attack != null) {
+                    attack.shutdownNow();
+                }
+            }
+            long elapsed = System.nanoTime() - started;
+
+            boolean virtualThreads = context.getEnvironment()
+                .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+            report(startedAt, elapsed, users, concurrency, virtualThreads, mail.getFailedCount() - mailFailuresBefore);
+        } finally {
+            otpTimeouts.shutdownNow();
+            httpThreads.shutdownNow();
+            context.close();
+        }
+    }
+
+    // Client and server run in this process, so every connection costs two
+    // file descriptors. Fail up front rather than with "Too many open files"
+    // halfway through a run.
+    private static void checkFileLimit(int concurrency) {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean os) {
+            long needed = 2L * concurrency + 1024;
+            if (os.getMaxFileDescriptorCount() < needed) {
+                throw new IllegalStateException("--concurrency=" + concurrency + " needs about " + needed
+                    + " open files, but the limit is " + os.getMaxFileDescriptorCount() + "; raise it with ulimit -n");
+            }
+        }
+    }
+
+    // Arguments rather than builder properties, so they win over
+    // application.properties; the caller's own arguments come last and win
+    // over these
+    private ConfigurableApplicationContext start(List<String> appArgs, int journeys, int concurrency)
+            throws IOException {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--app.email.transport=stub",
+            "--app.email.stub.inbox-size=" + Math.max(1_000, journeys * 2),
+            "--app.email.stub.latency=" + intOption("mail-latency", 0),
+            "--app.email.stub.latency-jitter=" + intOption("mail-jitter", 0),
+            "--app.email.stub.failure-rate=" + options.getOrDefault("mail-failure-rate", "0"),
+            // Take the client IP from X-Forwarded-For, as behind a load balancer,
+            // so journeys and attackers land in their own per-IP buckets
+            "--server.forward-headers-strategy=native",
+            // Room for every journey's connection, above Tomcat's default of 8192
+            "--server.tomcat.max-connections=" + (concurrency + 1_000),
+            "--server.tomcat.accept-count=1000",
+            "--app.inventory.seed-quantity=10000000",
+            "--app.cart.write-behind.journal-dir=" + Files.createTempDirectory("load-cart-journal")));
+        args.addAll(appArgs);
+        return new SpringApplicationBuilder(SportifyApplication.class).run(args.toArray(String[]::new));
+    }
+
+    // Starts a journey whenever one of the concurrency slots frees up
+    private void drive(int journeys, int concurrency, String phase) throws InterruptedException {
+        Semaphore slots = new Semaphore(concurrency);
+        for (int i = 0; i < journeys; i++) {
+            String email = "load-" + runId + "-" + phase + "-" + i + "@example.com";
+            slots.acquire();
+            journey(email, i).whenComplete((done, error) -> {
+                if (error != null) {
+                    // The failed step is already counted against its endpoint
+                    failedJourneys.incrementAndGet();
+                } else {
+                    completedJourneys.incrementAndGet();
+                }
+                slots.release();
+            });
+        }
+        slots.acquire(concurrency);
+    }
+
+    private CompletableFuture<Void> journey(String email, int offset) {
+        String ip = clientIp();
+        String credentials = "{\"email\":\"" + email + "\",\"password\":\"load-test-pw\"}";
+        return call("POST /api/auth/signup", post("/api/auth/signup", null,
+                    "{\"name\":\"Load User\",\"email\":\"" + email + "\",\"password\":\"load-test-pw\"}")
+                    .header(FORWARDED_FOR, ip))
+            .thenCompose(signedUp -> awaitOtp(email))
+            .thenCompose(otp -> call("POST /api/auth/verify-otp", post("/api/auth/verify-otp", null,
+                    "{\"email\":\"" + email + "\",\"otpCode\":\"" + otp + "\"}").header(FORWARDED_FOR, ip)))
+            .thenCompose(verified -> call("POST /api/auth/login",
+                    post("/api/auth/login", null, credentials).header(FORWARDED_FOR, ip)))
+            .thenCompose(login -> shop(token(login), offset));
+    }
+
+    // One address per journey from 198.18.0.0/15, the range set aside for benchmarks
+    private String clientIp() {
+        long n = clientIps.getAndIncrement() % (1 << 17);
+        return "198." + (18 + (n >> 16)) + "." + ((n >> 8) & 0xff) + "." + (n & 0xff);
+    }
+
+    // Sends --attack-rate requests a second, open loop, from --attack-ips
+    // addresses (203.0.113.0/24): wrong-password logins and sign-in OTP
+    // requests against a pool of --attack-emails addresses, and signups with
+    // fresh emails. At most --attack-concurrency are in flight; requests over
+    // that are counted as skipped rather than queued.
+    private ScheduledExecutorService startAttack() {
+        int ips = intOption("attack-ips", 8);
+        int emails = intOption("attack-emails", 100);
+        Semaphore inFlight = new Semaphore(intOption("attack-concurrency", 256));
+        AtomicLong sent = new AtomicLong();
+        long started = System.nanoTime();
+        ScheduledExecutorService ticks = Executors.newSingleThreadScheduledExecutor();
+        ticks.scheduleAtFixedRate(() -> {
+            long due = (System.nanoTime() - started) * attackRate / 1_000_000_000L;
+            for (long i = sent.get(); i < due; i = sent.incrementAndGet()) {
+                if (!inFlight.tryAcquire()) {
+                    attackSkipped.incrementAndGet();
+                    continue;
+                }
+                String ip = "203.0.113." + (1 + i % ips);
+                String victim = "victim-" + runId + "-" + (i % emails) + "@example.com";
+                String path = ATTACK_PATHS.get((int) (i % ATTACK_PATHS.size()));
+                String body = switch (path) {
+                    case "/api/auth/login" -> "{\"email\":\"" + victim + "\",\"password\":\"guess-" + i + "\"}";
+                    case "/api/auth/signin/request-otp" -> "{\"email\":\"" + victim + "\"}";
+                    default -> "{\"name\":\"Spam\",\"email\":\"spam-" + runId + "-" + i
+                            + "@example.com\",\"password\":\"spam-pw-" + i + "\"}";
+                };
+                attack("ATTACK POST " + path, post(path, null, body).header(FORWARDED_FOR, ip))
+                    .whenComplete((status, error) -> inFlight.release());
+            }
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        return ticks;
+    }
+
+    // Attack requests are expected to fail; only transport errors and
+    // timeouts count as errors, and each status is tallied for the report
+    private CompletableFuture<Integer> attack(String endpoint, HttpRequest.Builder request) {
+        long started = System.nanoTime();
+        return http.sendAsync(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                long nanos = System.nanoTime() - started;
+                recorder(endpoint).record(nanos, error == null);
+                recorder(ATTACK_AUTH).record(nanos, error == null);
+                int status = error == null ? response.statusCode() : -1;
+                attackStatuses.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+                return status;
+            });
+    }
+
+    private CompletableFuture<Void> shop(String token, int offset) {
+        StringBuilder items = new StringBuilder();
+        CompletableFuture<String> steps = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < cartAdds; i++) {
+            String[] sku = skus.get((offset + i) % skus.size());
+            String line = "{\"productId\":\"" + sku[0] + "\",\"size\":\"" + sku[1] + "\",\"quantity\":1}";
+            steps = steps.thenCompose(previous -> call("POST /api/cart/add", post("/api/cart/add", token, line)));
+            items.append(i > 0 ? "," : "").append(line);
+        }
+        return steps
+            .thenCompose(added -> call("POST /api/orders/create", post("/api/orders/create", token,
+                    "{\"shippingAddress\":{\"fullName\":\"Load User\",\"addressLine1\":\"12 MG Road\","
+                    + "\"city\":\"Bengaluru\",\"state\":\"Karnataka\",\"pinCode\":\"560001\","
+                    + "\"phone\":\"9876543210\"},\"items\":[" + items + "]}")))
+            .thenCompose(ordered -> call("GET /api/orders/my-orders",
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/my-orders"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()))
+            .thenApply(history -> null);
+    }
+
+    private String token(String loginBody) {
+        try {
+            return mapper.readTree(loginBody).path("token").asText();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private record OtpWait(long started, CompletableFuture<String> otp) {
+    }
+
+    // Time from the signup response until the OTP email reaches the stub,
+    // i.e. outbox polling plus (simulated) provider latency. Waiting journeys
+    // hold no thread; the stub's send callback completes them.
+    private CompletableFuture<String> awaitOtp(String email) {
+        OtpWait wait = new OtpWait(System.nanoTime(), new CompletableFuture<>());
+        otpWaits.put(email, wait);
+        // The email may have arrived before the wait was registered
+        otpDelivered(email);
+        otpTimeouts.schedule(() -> {
+            if (otpWaits.remove(email, wait)) {
+                recorder("MAIL otp delivery").record(System.nanoTime() - wait.started(), false);
+                wait.otp().completeExceptionally(
+                    new IOException("No OTP for " + email + " within " + otpTimeoutMillis + " ms"));
+            }
+        }, otpTimeoutMillis, TimeUnit.MILLISECONDS);
+        return wait.otp();
+    }
+
+    private void otpDelivered(String email) {
+        OtpWait wait = otpWaits.get(email);
+        StubEmailTransport.SentEmail sent = wait != null ? mail.latestTo(email) : null;
+        if (sent == null) {
+            return;
+        }
+        Matcher matcher = OTP.matcher(sent.subject());
+        if (matcher.find() && otpWaits.remove(email, wait)) {
+            recorder("MAIL otp delivery").record(System.nanoTime() - wait.started(), true);
+            wait.otp().complete(matcher.group(1));
+        }
+    }
+
+    private HttpRequest.Builder post(String path, String token, String json) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    // Records the call against its endpoint and fails on anything but 2xx,
+    // which ends the journey
+    private CompletableFuture<String> call(String endpoint, HttpRequest.Builder request) {
+        long started = System.nanoTime();
+        return http.sendAsync(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.ofString())
+            .handle((response, error) -> {
+                boolean ok = error == null && response.statusCode() / 100 == 2;
+                long nanos = System.nanoTime() - started;
+                recorder(endpoint).record(nanos, ok);
+                if (endpoint.startsWith("POST /api/auth/")) {
+                    recorder(LEGIT_AUTH).record(nanos, ok);
+                    if (error == null && response.statusCode() == 429) {
+                        legitThrottled.incrementAndGet();
+                    }
+                }
+                if (error != null) {
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }
+                if (!ok) {
+                    throw new CompletionException(new IOException(
+                        endpoint + " returned " + response.statusCode() + ": " + response.body()));
+                }
+                return response.body();
+            });
+    }
+
+    private LatencyRecorder recorder(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, k -> new LatencyRecorder());
+    }
+
+    private void report(Instant startedAt, long elapsedNanos, int users, int concurrency, boolean virtualThreads,
+                        long mailFailures) throws IOException {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", users);
+        config.put("concurrency", concurrency);
+        config.put("serverThreads", virtualThreads ? "virtual" : "platform");
+        config.put("cartAdds", cartAdds);
+        config.put("mailLatencyMs", intOption("mail-latency", 0));
+        config.put("mailJitterMs", intOption("mail-jitter", 0));
+        config.put("mailFailureRate", Double.parseDouble(options.getOrDefault("mail-failure-rate", "0")));
+        config.put("attackRatePerSec", attackRate);
+        config.put("environment", Runtime.getRuntime().availableProcessors() + " cpus, java "
+                + Runtime.version().feature());
+
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> journeys = new LinkedHashMap<>();
+        journeys.put("completed", completedJourneys.get());
+        journeys.put("failed", failedJourneys.get());
+        journeys.put("perSec", Math.round(completedJourneys.get() / seconds * 1000) / 1000.0);
+
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        endpoints.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> byEndpoint.put(e.getKey(), e.getValue().summary(elapsedNanos)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", startedAt.toString());
+        result.put("durationSec", Math.round(seconds * 1000) / 1000.0);
+        result.put("config", config);
+        result.put("journeys", journeys);
+        result.put("mailInjectedFailures", mailFailures);
+        Map<String, Object> rateLimit = new LinkedHashMap<>();
+        rateLimit.put("legitThrottled", legitThrottled.get());
+        if (attackRate > 0) {
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            attackStatuses.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> statuses.put(e.getKey() < 0 ? "error" : e.getKey().toString(), e.getValue().get()));
+            rateLimit.put("attackStatuses", statuses);
+            rateLimit.put("attackSkipped", attackSkipped.get());
+        }
+        result.put("rateLimit", rateLimit);
+        result.put("endpoints", byEndpoint);
+
+        System.out.printf("%n%-40s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        byEndpoint.forEach((endpoint, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> s = (Map<String, Object>) value;
+            System.out.printf("%-40s %8s %7s %9s %9s %9s %9s %9s%n", endpoint, s.get("count"), s.get("errors"),
+                    s.get("throughputPerSec"), s.get("p50Ms"), s.get("p90Ms"), s.get("p99Ms"), s.get("maxMs"));
+        });
+        System.out.printf("%njourneys: %s completed, %s failed, %s/s over %.1f s%n",
+                journeys.get("completed"), journeys.get("failed"), journeys.get("perSec"), seconds);
+        System.out.println("legit auth calls throttled (429): " + legitThrottled.get());
+        if (attackRate > 0) {
+            System.out.println("attack responses by status: " + rateLimit.get("attackStatuses")
+                    + ", skipped at client: " + attackSkipped.get());
+        }
+
+        Path out = Path.of(options.getOrDefault("out", "target/load-result.json"));
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), result);
+        System.out.println("Load result is saved to " + out.toAbsolutePath());
+    }
+
+    private static List<String[]> availableSkus(ProductCatalog catalog) {
+        List<String[]> skus = new ArrayList<>();
+        for (Product product : catalog.snapshot().all()) {
+            for (String size : product.availableSizes()) {
+                skus.add(new String[] {product.id(), size});
+            }
+        }
+        return skus;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
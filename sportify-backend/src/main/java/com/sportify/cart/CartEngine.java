@@ -0,0 +1,21 @@
+package com.sportify.cart;
+
+import com.sportify.entity.CartItem;
+import com.sportify.model.CartRequest;
+
+import java.util.List;
+
+// Storage strategy behind CartService. Sizes arrive normalized (never null
+// on add; null on update/remove means "every size of the product").
+public interface CartEngine {
+    void add(Long userId, CartRequest request, String size, int quantity);
+
+    // Returns the number of lines changed; quantity <= 0 removes them
+    int update(Long userId, String productId, String size, int quantity);
+
+    int remove(Long userId, String productId, String size);
+
+    List<CartItem> lines(Long userId);
+
+    void clear(Long userId);
+}
@@ -0,0 +1,72 @@
+package com.sportify.cart;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+// Prepares cart_items written by older versions for the unique key on
+// (user_id, product_id, size): null sizes become "" (what CartService stores
+// for one-size products), sizes are trimmed, and duplicate lines are merged
+// into the oldest one with their quantities summed. Runs before Hibernate's
+// schema update so the key can be applied; a no-op on a fresh schema.
+@Component
+public class CartItemMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CartItemMigration.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    void migrate() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        try {
+            jdbc.queryForObject("select count(*) from cart_items where 1 = 0", Integer.class);
+        } catch (DataAccessException e) {
+            // Table not created yet
+            return;
+        }
+
+        // One transaction, so a crash between merge and delete cannot double-count
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            int deleted = jdbc.update("delete from cart_items where product_id is null or user_id is null");
+            int backfilled = jdbc.update("update cart_items set size = '' where size is null");
+            jdbc.update("update cart_items set size = trim(size) where size <> trim(size)");
+
+            List<Map<String, Object>> duplicates = jdbc.queryForList(
+                "select user_id, product_id, size, min(id) as keep_id, sum(quantity) as total "
+                    + "from cart_items group by user_id, product_id, size having count(*) > 1");
+            for (Map<String, Object> line : duplicates) {
+                Object keepId = line.get("keep_id");
+                jdbc.update("update cart_items set quantity = ? where id = ?", line.get("total"), keepId);
+                jdbc.update("delete from cart_items where user_id = ? and product_id = ? and size = ? and id <> ?",
+                    line.get("user_id"), line.get("product_id"), line.get("size"), keepId);
+            }
+
+            if (deleted + backfilled + duplicates.size() > 0) {
+                log.info("Cart migration: {} orphan lines removed, {} sizes backfilled, {} duplicate lines merged",
+                    deleted, backfilled, duplicates.size());
+            }
+        });
+    }
+
+    // Makes Hibernate's EntityManagerFactory, and with it the schema update,
+    // wait for the migration
+    @Component
+    static class SchemaUpdateOrdering extends EntityManagerFactoryDependsOnPostProcessor {
+        SchemaUpdateOrdering() {
+            super(CartItemMigration.class);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.sportify.cart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Append-only redo log for cart mutations not yet flushed to the database.
+// The active file is rotated at the start of each flush; rotated segments are
+// deleted once that flush commits, and replayed in order after a crash.
+//
+// Appends are group-committed: callers queue their entry and wait while a
+// single writer thread drains everything queued, writes it and flushes once,
+// so concurrent cart writes share one syscall instead of serializing on a
+// lock each. Queue order is file order, so one user's entries (appended under
+// that user's stripe lock) stay in mutation order.
+@Component
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "true", matchIfMissing = true)
+public class CartJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(CartJournal.class);
+    private static final String ACTIVE = "cart.journal";
+    private static final String SEGMENT_PREFIX = "cart-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_BATCH = 1024;
+
+    @Value("${app.cart.write-behind.journal-dir:./data/cart-journal}")
+    private String journalDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    // Guards the file handle; a ReentrantLock so virtual threads don't pin on file I/O
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    private Path dir;
+    private BufferedWriter writer;
+    private long nextSegment;
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    private record PendingWrite(String line, CompletableFuture<Void> done) {
+    }
+
+    public record Entry(String op, Long userId, String productId, String size,
+                        Integer quantity, Double price, String productName, String productImage) {
+
+        static final String PUT = "PUT";
+        static final String DEL = "DEL";
+        static final String CLR = "CLR";
+
+        static Entry put(Long userId, CartLine line) {
+            return put(userId, line, line.quantity);
+        }
+
+        // The line as it will be once quantity is applied
+        static Entry put(Long userId, CartLine line, int quantity) {
+            return new Entry(PUT, userId, line.productId, line.size, quantity,
+                    line.price, line.productName, line.productImage);
+        }
+
+        static Entry delete(Long userId, String productId, String size) {
+            return new Entry(DEL, userId, productId, size, null, null, null, null);
+        }
+
+        static Entry clear(Long userId) {
+            return new Entry(CLR, userId, null, null, null, null, null, null);
+        }
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+        List<Path> segments = segments();
+        nextSegment = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+        writer = Files.newBufferedWriter(dir.resolve(ACTIVE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writerThread = new Thread(this::writeLoop, "cart-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        closed = true;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        fileLock.lock();
+        try {
+            writer.close();
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    // Returns once the entry has reached the OS page cache, so a process crash
+    // loses nothing that was acknowledged. Throws if it could not be written.
+    public void append(Entry entry) {
+        String line;
+        try {
+            line = mapper.writeValueAsString(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cart journal entry could not be serialized", e);
+        }
+        if (closed) {
+            throw new IllegalStateException("Cart journal is closed");
+        }
+        PendingWrite write = new PendingWrite(line, new CompletableFuture<>());
+        queue.add(write);
+        try {
+            write.done().join();
+        } catch (CompletionException e) {
+            throw new UncheckedIOException("Cart journal write failed", (IOException) e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(MAX_BATCH);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            IOException failure = null;
+            fileLock.lock();
+            try {
+                for (PendingWrite write : batch) {
+                    writer.write(write.line());
+                    writer.newLine();
+                }
+                writer.flush();
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                fileLock.unlock();
+            }
+            for (PendingWrite write : batch) {
+                if (failure == null) {
+                    write.done().complete(null);
+                } else {
+                    write.done().completeExceptionally(failure);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // Seals the active file as a numbered segment and starts a fresh one.
+    // Appends acknowledged before this are in the sealed segment.
+    public void rotate() {
+        fileLock.lock();
+        try {
+            writer.close();
+            Path active = dir.resolve(ACTIVE);
+            if (Files.size(active) > 0) {
+                Files.move(active, dir.resolve(SEGMENT_PREFIX + nextSegment++ + SEGMENT_SUFFIX));
+            }
+            writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cart journal rotation failed", e);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    // Called after a flush has committed everything the sealed segments describe;
+    // only the flusher rotates and discards, so no lock is needed
+    public void discardSegments() {
+        for (Path segment : segments()) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete cart journal segment {}", segment, e);
+            }
+        }
+    }
+
+    // Runs at startup before any append
+    public void replay(Consumer<Entry> consumer) {
+        List<Path> files = new ArrayList<>(segments());
+        files.add(dir.resolve(ACTIVE));
+        for (Path file : files) {
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        consumer.accept(mapper.readValue(line, Entry.class));
+                    } catch (IOException e) {
+                        // A torn final write from a crash; everything before it is intact
+                        log.warn("Skipping unreadable cart journal entry in {}", file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cart journal replay failed", e);
+            }
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(CartJournal::segmentNumber))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cart journal listing failed", e);
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sportify.cart;
+
+import com.sportify.entity.CartItem;
+
+import java.time.LocalDateTime;
+
+// Mutable cart line held by WriteBehindCartEngine; only touched under the owning user's stripe lock
+class CartLine {
+    // Negative until the line's first flush, then its cart_items id
+    long id;
+    final String productId;
+    final String size;
+    final LocalDateTime createdAt;
+    String productName;
+    String productImage;
+    Double price;
+    int quantity;
+    // True once a cart_items row exists for the line, so a flush updates it in place
+    boolean persisted;
+
+    CartLine(long id, String productId, String size, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.size = size;
+        this.createdAt = createdAt;
+    }
+
+    String key() {
+        return key(productId, size);
+    }
+
+    static String key(String productId, String size) {
+        return productId + '\u0000' + size;
+    }
+
+    CartItem toCartItem() {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProductId(productId);
+        item.setProductName(productName);
+        item.setProductImage(productImage);
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        item.setSize(size);
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+
+    CartLine copy() {
+        CartLine copy = new CartLine(id, productId, size, createdAt);
+        copy.productName = productName;
+        copy.productImage = productImage;
+        copy.price = price;
+        copy.quantity = quantity;
+        copy.persisted = persisted;
+        return copy;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sportify.cart;
+
+import com.sportify.entity.CartItem;
+import com.sportify.model.CartRequest;
+import com.sportify.repository.CartRepository;
+import com.sportify.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Write-through engine: every mutation is a single-row statement against cart_items
+@Component
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "false")
+public class JpaCartEngine implements CartEngine {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.cart.max-lines:100}")
+    private int maxLines;
+
+    @Override
+    public void add(Long userId, CartRequest request, String size, int quantity) {
+        // Common case: the line already exists and one UPDATE is enough
+        if (cartRepository.incrementQuantity(userId, request.getProductId(), size, quantity) > 0) {
+            return;
+        }
+
+        if (cartRepository.countByUserId(userId) >= maxLines) {
+            throw new RuntimeException("Cart is full");
+        }
+
+        CartItem cartItem = new CartItem();
+        // Reference proxy only sets the FK; no users SELECT
+        cartItem.setUser(userRepository.getReferenceById(userId));
+        cartItem.setProductId(request.getProductId());
+        cartItem.setProductName(request.getProductName());
+        cartItem.setProductImage(request.getProductImage());
+        cartItem.setPrice(request.getPrice());
+        cartItem.setQuantity(quantity);
+        cartItem.setSize(size);
+
+        try {
+            cartRepository.saveAndFlush(cartItem);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent add created the line first; fold into it
+            cartRepository.incrementQuantity(userId, request.getProductId(), size, quantity);
+        }
+    }
+
+    @Override
+    public int update(Long userId, String productId, String size, int quantity) {
+        return quantity > 0
+                ? cartRepository.updateQuantity(userId, productId, size, quantity)
+                : cartRepository.deleteLine(userId, productId, size);
+    }
+
+    @Override
+    public int remove(Long userId, String productId, String size) {
+        return cartRepository.deleteLine(userId, productId, size);
+    }
+
+    @Override
+    public List<CartItem> lines(Long userId) {
+        return cartRepository.findByUserId(userId);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        cartRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,503 @@
+package com.sportify.cart;
+
+import com.sportify.entity.CartItem;
+import com.sportify.model.CartRequest;
+import com.sportify.repository.CartRepository;
+import com.sportify.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Live carts are held in memory and mutated under a per-user stripe lock.
+// Every mutation is journaled before it is applied; a scheduled flusher
+// writes the changed lines of all dirty carts to cart_items in one
+// transaction with JDBC batches, updating existing rows in place.
+@Component
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "true", matchIfMissing = true)
+public class WriteBehindCartEngine implements CartEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartEngine.class);
+    private static final int STRIPES = 64;
+
+    private static final String DELETE_LINE =
+            "delete from cart_items where user_id = ? and product_id = ? and size = ?";
+    private static final String UPDATE_LINE =
+            "update cart_items set product_name = ?, product_image = ?, price = ?, quantity = ? " +
+            "where user_id = ? and product_id = ? and size = ?";
+    private static final String INSERT_LINE =
+            "insert into cart_items (user_id, product_id, product_name, product_image, price, quantity, size, created_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_LINE_IDS = "select id, product_id, size from cart_items where user_id = ?";
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartJournal journal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cart.max-lines:100}")
+    private int maxLines;
+
+    @Value("${app.cart.write-behind.idle-eviction:1800000}")
+    private long idleEvictionMillis;
+
+    private final Map<Long, UserCart> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // Lines created in memory get negative ids so they never clash with cart_items ids
+    private final AtomicLong lineIds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // A ReentrantLock so a flush waiting on JDBC I/O does not pin a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private static final class UserCart {
+        final Map<String, CartLine> lines = new LinkedHashMap<>();
+        // Line keys put, and lines removed, since the last flush snapshot
+        final Set<String> changed = new HashSet<>();
+        final Map<String, CartLine> removed = new HashMap<>();
+        long lastAccess;
+    }
+
+    // One dirty cart as seen by a flush: the live lines being written (to
+    // record their row ids afterwards), their copies, and the removed lines
+    private record CartChanges(List<CartLine> live, List<CartLine> upserts, List<CartLine> removals) {
+    }
+
+    public WriteBehindCartEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void recover() {
+        journal.replay(entry -> {
+            if (!userRepository.existsById(entry.userId())) {
+                return;
+            }
+            ReentrantLock lock = lockFor(entry.userId());
+            UserCart cart = lockCart(entry.userId(), lock);
+            try {
+                apply(cart, entry);
+                dirty.add(entry.userId());
+            } finally {
+                lock.unlock();
+            }
+        });
+        if (!dirty.isEmpty()) {
+            log.info("Recovered {} carts from journal", dirty.size());
+        }
+        flush();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    @Override
+    public void add(Long userId, CartRequest request, String size, int quantity) {
+        ReentrantLock lock = lockFor(userId);
+        UserCart cart = lockCart(userId, lock);
+        try {
+            String key = CartLine.key(request.getProductId(), size);
+            CartLine line = cart.lines.get(key);
+            if (line != null) {
+                journal.append(CartJournal.Entry.put(userId, line, line.quantity + quantity));
+                line.quantity += quantity;
+            } else {
+                if (cart.lines.size() >= maxLines) {
+                    throw new RuntimeException("Cart is full");
+                }
+                line = new CartLine(-lineIds.incrementAndGet(), request.getProductId(), size, LocalDateTime.now());
+                line.productName = request.getProductName();
+                line.productImage = request.getProductImage();
+                line.price = request.getPrice();
+                line.quantity = quantity;
+                journal.append(CartJournal.Entry.put(userId, line));
+                cart.lines.put(key, line);
+            }
+            cart.changed.add(key);
+            dirty.add(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int update(Long userId, String productId, String size, int quantity) {
+        if (quantity <= 0) {
+            return remove(userId, productId, size);
+        }
+        ReentrantLock lock = lockFor(userId);
+        UserCart cart = lockCart(userId, lock);
+        try {
+            int changed = 0;
+            for (CartLine line : cart.lines.values()) {
+                if (matches(line, productId, size)) {
+                    journal.append(CartJournal.Entry.put(userId, line, quantity));
+                    line.quantity = quantity;
+                    cart.changed.add(line.key());
+                    changed++;
+                }
+            }
+            if (changed > 0) {
+                dirty.add(userId);
+            }
+            return changed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remove(Long userId, String productId, String size) {
+        ReentrantLock lock = lockFor(userId);
+        UserCart cart = lockCart(userId, lock);
+        try {
+            if (cart.lines.values().stream().noneMatch(line -> matches(line, productId, size))) {
+                return 0;
+            }
+            journal.append(CartJournal.Entry.delete(userId, productId, size));
+            int removed = removeMatching(cart, productId, size);
+            dirty.add(userId);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<CartItem> lines(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        UserCart cart = lockCart(userId, lock);
+        try {
+            List<CartItem> items = new ArrayList<>();
+            for (CartLine line : cart.lines.values()) {
+                items.add(line.toCartItem());
+            }
+            return items;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        UserCart cart = lockCart(userId, lock);
+        try {
+            journal.append(CartJournal.Entry.clear(userId));
+            clearLines(cart);
+            dirty.add(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (!dirty.isEmpty()) {
+                // Anything journaled from here on lands in the new active file
+                journal.rotate();
+                Map<Long, CartChanges> snapshot = snapshotDirty();
+                try {
+                    Map<Long, Map<String, Long>> rowIds = write(snapshot);
+                    journal.discardSegments();
+                    markPersisted(snapshot, rowIds);
+                } catch (RuntimeException e) {
+                    log.error("Cart flush failed for {} carts, will retry", snapshot.size(), e);
+                    restoreChanges(snapshot);
+                }
+            }
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<Long, CartChanges> snapshotDirty() {
+        Map<Long, CartChanges> snapshot = new HashMap<>();
+        for (Long userId : new ArrayList<>(dirty)) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                dirty.remove(userId);
+                UserCart cart = carts.get(userId);
+                if (cart == null) {
+                    continue;
+                }
+                List<CartLine> live = new ArrayList<>();
+                List<CartLine> upserts = new ArrayList<>();
+                for (String key : cart.changed) {
+                    CartLine line = cart.lines.get(key);
+                    if (line != null) {
+                        live.add(line);
+                        upserts.add(line.copy());
+                    }
+                }
+                snapshot.put(userId, new CartChanges(live, upserts, new ArrayList<>(cart.removed.values())));
+                cart.changed.clear();
+                cart.removed.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    // Deletes removed lines, then updates existing rows in place and inserts
+    // new ones (created_at is the line's own). Returns the row ids of carts
+    // that got new rows, keyed by line key.
+    private Map<Long, Map<String, Long>> write(Map<Long, CartChanges> snapshot) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<CartLine> updated = new ArrayList<>();
+        List<Long> updatedUsers = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        snapshot.forEach((userId, changes) -> {
+            for (CartLine line : changes.removals()) {
+                deletes.add(new Object[] {userId, line.productId, line.size});
+            }
+            for (CartLine line : changes.upserts()) {
+                if (line.persisted) {
+                    updates.add(new Object[] {line.productName, line.productImage, line.price, line.quantity,
+                            userId, line.productId, line.size});
+                    updated.add(line);
+                    updatedUsers.add(userId);
+                } else {
+                    inserts.add(insertArgs(userId, line));
+                }
+            }
+        });
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_LINE, deletes);
+            }
+            if (!updates.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_LINE, updates);
+                for (int i = 0; i < counts.length; i++) {
+                    // The row is gone (removed outside this engine); write it back
+                    if (counts[i] == 0) {
+                        inserts.add(insertArgs(updatedUsers.get(i), updated.get(i)));
+                    }
+                }
+            }
+            Map<Long, Map<String, Long>> rowIds = new HashMap<>();
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LINE, inserts);
+                for (Object[] insert : inserts) {
+                    Long userId = (Long) insert[0];
+                    if (!rowIds.containsKey(userId)) {
+                        Map<String, Long> ids = new HashMap<>();
+                        jdbcTemplate.query(SELECT_LINE_IDS, rs -> {
+                            ids.put(CartLine.key(rs.getString("product_id"), rs.getString("size")), rs.getLong("id"));
+                        }, userId);
+                        rowIds.put(userId, ids);
+                    }
+                }
+            }
+            return rowIds;
+        });
+    }
+
+    private static Object[] insertArgs(Long userId, CartLine line) {
+        return new Object[] {userId, line.productId, line.productName, line.productImage,
+                line.price, line.quantity, line.size, Timestamp.valueOf(line.createdAt)};
+    }
+
+    // After commit: lines still in the cart now have rows, so later flushes
+    // update them, and the API returns the stable row id
+    private void markPersisted(Map<Long, CartChanges> snapshot, Map<Long, Map<String, Long>> rowIds) {
+        snapshot.forEach((userId, changes) -> {
+            Map<String, Long> ids = rowIds.getOrDefault(userId, Map.of());
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                UserCart cart = carts.get(userId);
+                for (CartLine line : changes.live()) {
+                    if (cart == null || cart.lines.get(line.key()) != line) {
+                        continue;
+                    }
+                    line.persisted = true;
+                    Long id = ids.get(line.key());
+                    if (id != null) {
+                        line.id = id;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // A failed flush hands its lines back so the next one writes them again
+    private void restoreChanges(Map<Long, CartChanges> snapshot) {
+        snapshot.forEach((userId, changes) -> {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                UserCart cart = carts.get(userId);
+                if (cart != null) {
+                    for (CartLine line : changes.upserts()) {
+                        if (cart.lines.containsKey(line.key())) {
+                            cart.changed.add(line.key());
+                        }
+                    }
+                    for (CartLine line : changes.removals()) {
+                        cart.removed.putIfAbsent(line.key(), line);
+                    }
+                }
+                dirty.add(userId);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        Iterator<Map.Entry<Long, UserCart>> it = carts.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, UserCart> entry = it.next();
+            if (entry.getValue().lastAccess >= cutoff) {
+                continue;
+            }
+            ReentrantLock lock = lockFor(entry.getKey());
+            lock.lock();
+            try {
+                if (!dirty.contains(entry.getKey()) && entry.getValue().lastAccess < cutoff) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Takes the user's stripe lock and returns the cart with the lock held. A
+    // cart that is not in memory is read before the lock is taken: request
+    // threads can hold a JDBC connection (open-in-view) while they wait for a
+    // stripe, so waiting for a connection under the lock can drain the pool
+    // into a deadlock. The rows are only used if no cart was evicted in the
+    // meantime, since an evicted cart may have been changed after they were read.
+    private UserCart lockCart(Long userId, ReentrantLock lock) {
+        while (true) {
+            long evictedBefore = evictions.get();
+            List<CartItem> rows = carts.containsKey(userId) ? null : cartRepository.findByUserId(userId);
+            lock.lock();
+            UserCart cart = carts.get(userId);
+            if (cart == null && rows != null && evictions.get() == evictedBefore) {
+                cart = load(rows);
+                carts.put(userId, cart);
+            }
+            if (cart != null) {
+                cart.lastAccess = System.currentTimeMillis();
+                return cart;
+            }
+            lock.unlock();
+        }
+    }
+
+    private static UserCart load(List<CartItem> rows) {
+        UserCart cart = new UserCart();
+        for (CartItem item : rows) {
+            CartLine line = new CartLine(item.getId(), item.getProductId(), item.getSize(),
+                    item.getCreatedAt() != null ? item.getCreatedAt() : LocalDateTime.now());
+            line.productName = item.getProductName();
+            line.productImage = item.getProductImage();
+            line.price = item.getPrice();
+            line.quantity = item.getQuantity();
+            line.persisted = true;
+            cart.lines.put(line.key(), line);
+        }
+        return cart;
+    }
+
+    private void apply(UserCart cart, CartJournal.Entry entry) {
+        switch (entry.op()) {
+            case CartJournal.Entry.PUT -> {
+                String key = CartLine.key(entry.productId(), entry.size());
+                CartLine line = cart.lines.computeIfAbsent(key,
+                        k -> new CartLine(-lineIds.incrementAndGet(), entry.productId(), entry.size(), LocalDateTime.now()));
+                line.productName = entry.productName();
+                line.productImage = entry.productImage();
+                line.price = entry.price();
+                line.quantity = entry.quantity();
+                cart.changed.add(key);
+            }
+            case CartJournal.Entry.DEL -> removeMatching(cart, entry.productId(), entry.size());
+            case CartJournal.Entry.CLR -> clearLines(cart);
+            default -> log.warn("Unknown cart journal op {}", entry.op());
+        }
+    }
+
+    private int removeMatching(UserCart cart, String productId, String size) {
+        int removed = 0;
+        Iterator<CartLine> it = cart.lines.values().iterator();
+        while (it.hasNext()) {
+            CartLine line = it.next();
+            if (matches(line, productId, size)) {
+                it.remove();
+                cart.changed.remove(line.key());
+                cart.removed.put(line.key(), line);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void clearLines(UserCart cart) {
+        for (CartLine line : cart.lines.values()) {
+            cart.removed.put(line.key(), line);
+        }
+        cart.changed.clear();
+        cart.lines.clear();
+    }
+
+    private static boolean matches(CartLine line, String productId, String size) {
+        return line.productId.equals(productId) && (size == null || line.size.equals(size));
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return locks[Long.hashCode(userId) & (STRIPES - 1)];
+    }
+}
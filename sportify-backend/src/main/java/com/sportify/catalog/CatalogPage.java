@@ -0,0 +1,15 @@
+package com.sportify.catalog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// Filtered listing plus, when requested, facet -> value -> hit count
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CatalogPage(
+    List<Product> products,
+    int total,
+    Map<String, Map<String, Integer>> facets
+) {
+}
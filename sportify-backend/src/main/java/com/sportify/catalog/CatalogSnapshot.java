@@ -0,0 +1,105 @@
+package com.sportify.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// One fully built, never mutated version of the catalog. Every index is
+// computed up front, so lookups are plain map reads that return shared
+// immutable lists.
+public final class CatalogSnapshot {
+
+    private final List<Product> products;
+    private final Map<String, Product> byId;
+    private final Map<String, Product> bySku;
+    private final Map<String, List<Product>> byCategory;
+    private final Map<String, List<Product>> byType;
+    private final SearchIndex searchIndex;
+    private final FacetIndex facetIndex;
+
+    private CatalogSnapshot(List<Product> products, CatalogSnapshot previous) {
+        this.products = List.copyOf(products);
+
+        Map<String, Product> ids = new HashMap<>();
+        Map<String, Product> skus = new HashMap<>();
+        Map<String, List<Product>> categories = new LinkedHashMap<>();
+        Map<String, List<Product>> types = new LinkedHashMap<>();
+        for (Product product : this.products) {
+            if (ids.putIfAbsent(product.id(), product) != null) {
+                throw new IllegalArgumentException("Duplicate product id " + product.id());
+            }
+            if (product.sku() != null) {
+                skus.put(product.sku(), product);
+            }
+            if (product.category() != null) {
+                categories.computeIfAbsent(key(product.category()), k -> new ArrayList<>()).add(product);
+            }
+            if (product.type() != null) {
+                types.computeIfAbsent(key(product.type()), k -> new ArrayList<>()).add(product);
+            }
+        }
+        this.byId = Map.copyOf(ids);
+        this.bySku = Map.copyOf(skus);
+        this.byCategory = freeze(categories);
+        this.byType = freeze(types);
+        this.searchIndex = SearchIndex.build(this.products, previous != null ? previous.searchIndex : null);
+        this.facetIndex = FacetIndex.build(this.products);
+    }
+
+    public static CatalogSnapshot of(List<Product> products) {
+        return new CatalogSnapshot(products, null);
+    }
+
+    // Products unchanged since the previous snapshot reuse their analyzed search terms
+    public static CatalogSnapshot of(List<Product> products, CatalogSnapshot previous) {
+        return new CatalogSnapshot(products, previous);
+    }
+
+    public List<Product> all() {
+        return products;
+    }
+
+    public Product byId(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public Product bySku(String sku) {
+        return sku != null ? bySku.get(sku) : null;
+    }
+
+    public List<Product> byCategory(String category) {
+        return byCategory.getOrDefault(key(category), List.of());
+    }
+
+    public List<Product> byType(String type) {
+        return byType.getOrDefault(key(type), List.of());
+    }
+
+    public List<Product> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    // selections maps a facet (category, type, brand, size, color, price) to the
+    // values to keep; values of one facet are ORed, different facets are ANDed
+    public CatalogPage filter(Map<String, ? extends Collection<String>> selections, boolean withCounts) {
+        return facetIndex.query(selections, withCounts);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, List<Product>> freeze(Map<String, List<Product>> index) {
+        Map<String, List<Product>> frozen = new HashMap<>();
+        index.forEach((k, v) -> frozen.put(k, List.copyOf(v)));
+        return Map.copyOf(frozen);
+    }
+}
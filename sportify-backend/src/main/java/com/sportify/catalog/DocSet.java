@@ -0,0 +1,63 @@
+package com.sportify.catalog;
+
+// Immutable set of document ids over [0, universe). Sparse sets are stored as
+// a sorted int array and dense ones as a bitmap, whichever is smaller, in the
+// spirit of a single Roaring container.
+final class DocSet {
+
+    private final int[] ids;
+    private final long[] words;
+    private final int cardinality;
+
+    private DocSet(int[] ids, long[] words, int cardinality) {
+        this.ids = ids;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    static DocSet of(int[] sortedIds, int universe) {
+        int wordCount = (universe + 63) >>> 6;
+        // An int per member costs less than a bit per document below 1/32 density
+        if (sortedIds.length < wordCount * 2) {
+            return new DocSet(sortedIds, null, sortedIds.length);
+        }
+        long[] bits = new long[wordCount];
+        for (int id : sortedIds) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        return new DocSet(null, bits, sortedIds.length);
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    void orInto(long[] target) {
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                target[i] |= words[i];
+            }
+        } else {
+            for (int id : ids) {
+                target[id >>> 6] |= 1L << id;
+            }
+        }
+    }
+
+    // |this ∩ filter| without materializing the intersection
+    int andCount(long[] filter) {
+        int count = 0;
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & filter[i]);
+            }
+        } else {
+            for (int id : ids) {
+                if ((filter[id >>> 6] & (1L << id)) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+package com.sportify.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// One DocSet per facet value, built once per snapshot. A query ORs the
+// selected values within a facet and ANDs across facets; each facet's counts
+// are taken against every other facet's selection, so the sidebar can show
+// how many products picking another value would give.
+final class FacetIndex {
+
+    static final String CATEGORY = "category";
+    static final String TYPE = "type";
+    static final String BRAND = "brand";
+    static final String SIZE = "size";
+    static final String COLOR = "color";
+    static final String PRICE = "price";
+
+    private static final List<String> FACETS = List.of(CATEGORY, TYPE, BRAND, SIZE, COLOR, PRICE);
+
+    private final List<Product> docs;
+    private final int wordCount;
+
+    // facet -> lowercase value key -> value
+    private final Map<String, Map<String, FacetValue>> facets;
+
+    private record FacetValue(String label, DocSet docs) {
+    }
+
+    private FacetIndex(List<Product> docs) {
+        this.docs = docs;
+        this.wordCount = (docs.size() + 63) >>> 6;
+        Map<String, Map<String, FacetValue>> built = new LinkedHashMap<>();
+        built.put(CATEGORY, index(p -> single(p.category())));
+        built.put(TYPE, index(p -> single(p.type())));
+        built.put(BRAND, index(p -> single(p.brand())));
+        built.put(SIZE, index(Product::availableSizes));
+        built.put(COLOR, index(FacetIndex::colorNames));
+        built.put(PRICE, index(p -> List.of(PriceBand.of(p.price()).label())));
+        this.facets = built;
+    }
+
+    static FacetIndex build(List<Product> docs) {
+        return new FacetIndex(docs);
+    }
+
+    // selections: facet -> chosen values; facets that are absent or empty do not filter
+    CatalogPage query(Map<String, ? extends Collection<String>> selections, boolean withCounts) {
+        Map<String, long[]> selected = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            Collection<String> values = selections.get(facet);
+            if (values != null && !values.isEmpty()) {
+                selected.put(facet, union(facets.get(facet), values));
+            }
+        }
+
+        long[] matches = intersectExcept(selected, null);
+        List<Product> products = new ArrayList<>();
+        for (int w = 0; w < matches.length; w++) {
+            long word = matches[w];
+            while (word != 0) {
+                products.add(docs.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        if (withCounts) {
+            for (String facet : FACETS) {
+                long[] base = selected.containsKey(facet) ? intersectExcept(selected, facet) : matches;
+                Map<String, Integer> valueCounts = new LinkedHashMap<>();
+                for (FacetValue value : facets.get(facet).values()) {
+                    valueCounts.put(value.label(), value.docs().andCount(base));
+                }
+                counts.put(facet, valueCounts);
+            }
+        }
+        return new CatalogPage(products, products.size(), withCounts ? counts : null);
+    }
+
+    private long[] union(Map<String, FacetValue> values, Collection<String> chosen) {
+        long[] bits = new long[wordCount];
+        for (String value : chosen) {
+            FacetValue match = values.get(key(value));
+            if (match != null) {
+                match.docs().orInto(bits);
+            }
+        }
+        return bits;
+    }
+
+    private long[] intersectExcept(Map<String, long[]> selected, String skipFacet) {
+        long[] result = new long[wordCount];
+        Arrays.fill(result, -1L);
+        int tail = docs.size() & 63;
+        if (tail != 0) {
+            result[wordCount - 1] = (1L << tail) - 1;
+        }
+        for (Map.Entry<String, long[]> e : selected.entrySet()) {
+            if (e.getKey().equals(skipFacet)) {
+                continue;
+            }
+            long[] bits = e.getValue();
+            for (int i = 0; i < wordCount; i++) {
+                result[i] &= bits[i];
+            }
+        }
+        return result;
+    }
+
+    private Map<String, FacetValue> index(Function<Product, List<String>> valuesOf) {
+        // Sorted by label so facet listings are stable across reloads
+        Map<String, String> labels = new TreeMap<>();
+        Map<String, List<Integer>> members = new LinkedHashMap<>();
+        for (int doc = 0; doc < docs.size(); doc++) {
+            for (String value : valuesOf.apply(docs.get(doc))) {
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                String key = key(value);
+                labels.putIfAbsent(key, value.trim());
+                List<Integer> ids = members.computeIfAbsent(key, k -> new ArrayList<>());
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != doc) {
+                    ids.add(doc);
+                }
+            }
+        }
+        Map<String, FacetValue> values = new LinkedHashMap<>();
+        labels.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(e -> {
+                int[] ids = members.get(e.getKey()).stream().mapToInt(Integer::intValue).toArray();
+                values.put(e.getKey(), new FacetValue(e.getValue(), DocSet.of(ids, docs.size())));
+            });
+        return values;
+    }
+
+    private static List<String> single(String value) {
+        return value != null ? List.of(value) : List.of();
+    }
+
+    // "White/Black" is listed under both White and Black
+    private static List<String> colorNames(Product product) {
+        List<String> names = new ArrayList<>();
+        for (Product.ProductColor color : product.colors()) {
+            if (color.name() != null) {
+                names.addAll(Arrays.asList(color.name().split("/")));
+            }
+        }
+        return names;
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Same bands as the store sidebar
+    enum PriceBand {
+        UNDER_5000("Under 5000"),
+        FROM_5000_TO_10000("5000-10000"),
+        FROM_10000_TO_20000("10000-20000"),
+        OVER_20000("Over 20000");
+
+        private final String label;
+
+        PriceBand(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+
+        static PriceBand of(long price) {
+            if (price < 5000) {
+                return UNDER_5000;
+            }
+            if (price <= 10000) {
+                return FROM_5000_TO_10000;
+            }
+            if (price <= 20000) {
+                return FROM_10000_TO_20000;
+            }
+            return OVER_20000;
+        }
+    }
+}
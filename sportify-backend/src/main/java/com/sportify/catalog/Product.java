@@ -0,0 +1,35 @@
+package com.sportify.catalog;
+
+import java.util.List;
+
+// Immutable catalog entry; price is in whole rupees as published in products.json
+public record Product(
+    String id,
+    String brand,
+    String name,
+    String category,
+    String type,
+    long price,
+    String currency,
+    String description,
+    List<String> images,
+    List<ProductColor> colors,
+    List<String> sizes,
+    List<String> availableSizes,
+    String sku,
+    String origin
+) {
+    public Product {
+        images = images != null ? List.copyOf(images) : List.of();
+        colors = colors != null ? List.copyOf(colors) : List.of();
+        sizes = sizes != null ? List.copyOf(sizes) : List.of();
+        availableSizes = availableSizes != null ? List.copyOf(availableSizes) : List.of();
+    }
+
+    public String primaryImage() {
+        return images.isEmpty() ? null : images.get(0);
+    }
+
+    public record ProductColor(String name, String hex) {
+    }
+}
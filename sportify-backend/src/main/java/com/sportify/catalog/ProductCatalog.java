@@ -0,0 +1,72 @@
+package com.sportify.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// Read model for products. Readers take the current snapshot from a volatile
+// field with no locking; reload() builds a complete new snapshot off to the
+// side and publishes it with a single write, so a reader never sees a
+// half-built catalog.
+@Component
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.catalog.location:classpath:catalog/products.json}")
+    private String location;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.of(List.of());
+
+    @PostConstruct
+    public synchronized void reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            List<Product> products = objectMapper.readerFor(new TypeReference<List<Product>>() {})
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(in);
+            snapshot = CatalogSnapshot.of(products, snapshot);
+            log.info("Loaded {} products from {}", products.size(), location);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load catalog from " + location, e);
+        }
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public Product findById(String id) {
+        return snapshot.byId(id);
+    }
+
+    // Throws when the product is unknown or the client's price is stale
+    public Product requirePricedProduct(String productId, Double clientPrice) {
+        Product product = snapshot.byId(productId);
+        if (product == null) {
+            throw new RuntimeException("Unknown product: " + productId);
+        }
+        if (clientPrice != null && clientPrice != product.price()) {
+            throw new RuntimeException("Price changed for " + product.name() + ". Refresh and try again.");
+        }
+        return product;
+    }
+}
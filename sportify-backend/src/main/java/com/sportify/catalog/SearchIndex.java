@@ -0,0 +1,402 @@
+package com.sportify.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Immutable inverted index over name, brand, category and description.
+// Postings are parallel int arrays (doc ids ascending, field-weighted term
+// frequencies) and ranking is BM25. Every query term must match, either
+// exactly, as a prefix of an indexed term, or - when neither exists - within
+// a small edit distance found through a trigram index of the vocabulary.
+public final class SearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float PREFIX_BOOST = 0.8f;
+    private static final float FUZZY_BOOST = 0.6f;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+    private static final int MAX_FUZZY_EXPANSIONS = 8;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final List<Product> docs;
+    private final Map<String, AnalyzedDoc> analyzed;
+
+    private final String[] terms;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingDocs;
+    private final int[][] postingFreqs;
+    private final float[] idf;
+    private final float[] lengthNorm;
+    private final Map<String, int[]> trigramTerms;
+
+    // Field-weighted term counts for one product, kept so the next build can
+    // reuse them for products that did not change
+    private record AnalyzedDoc(Product product, Map<String, Integer> freqs, int length) {
+    }
+
+    private SearchIndex(List<Product> docs, SearchIndex previous) {
+        this.docs = docs;
+        int n = docs.size();
+
+        Map<String, AnalyzedDoc> analyzedDocs = new HashMap<>(n * 2);
+        Map<String, IntList[]> postings = new HashMap<>();
+        int[] lengths = new int[n];
+        long totalLength = 0;
+        for (int doc = 0; doc < n; doc++) {
+            Product product = docs.get(doc);
+            AnalyzedDoc analyzedDoc = previous != null ? previous.analyzed.get(product.id()) : null;
+            if (analyzedDoc == null || !analyzedDoc.product().equals(product)) {
+                analyzedDoc = analyze(product);
+            }
+            analyzedDocs.put(product.id(), analyzedDoc);
+            lengths[doc] = analyzedDoc.length();
+            totalLength += analyzedDoc.length();
+            for (Map.Entry<String, Integer> e : analyzedDoc.freqs().entrySet()) {
+                IntList[] posting = postings.computeIfAbsent(e.getKey(), k -> new IntList[] {new IntList(), new IntList()});
+                posting[0].add(doc);
+                posting[1].add(e.getValue());
+            }
+        }
+        this.analyzed = analyzedDocs;
+
+        this.terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.termIds = new HashMap<>(terms.length * 2);
+        this.postingDocs = new int[terms.length][];
+        this.postingFreqs = new int[terms.length][];
+        this.idf = new float[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            IntList[] posting = postings.get(terms[t]);
+            termIds.put(terms[t], t);
+            postingDocs[t] = posting[0].toArray();
+            postingFreqs[t] = posting[1].toArray();
+            int df = postingDocs[t].length;
+            idf[t] = (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+
+        float avgLength = n == 0 ? 1 : Math.max(1, (float) totalLength / n);
+        this.lengthNorm = new float[n];
+        for (int doc = 0; doc < n; doc++) {
+            lengthNorm[doc] = K1 * (1 - B + B * lengths[doc] / avgLength);
+        }
+
+        Map<String, IntList> grams = new HashMap<>();
+        for (int t = 0; t < terms.length; t++) {
+            for (String gram : trigrams(terms[t])) {
+                grams.computeIfAbsent(gram, k -> new IntList()).add(t);
+            }
+        }
+        this.trigramTerms = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, ids) -> trigramTerms.put(gram, ids.toArray()));
+    }
+
+    static SearchIndex build(List<Product> docs, SearchIndex previous) {
+        return new SearchIndex(docs, previous);
+    }
+
+    public List<Product> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        if (queryTerms.isEmpty() || limit <= 0 || docs.isEmpty()) {
+            return List.of();
+        }
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        List<int[]> expansionIds = new ArrayList<>(queryTerms.size());
+        List<float[]> expansionBoosts = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            if (!expand(term, expansionIds, expansionBoosts)) {
+                // Conjunctive query: one unmatched term means no results
+                return List.of();
+            }
+        }
+
+        // Rarest term first: later terms only score documents that are still candidates
+        Integer[] order = new Integer[expansionIds.size()];
+        long[] cost = new long[order.length];
+        for (int q = 0; q < order.length; q++) {
+            order[q] = q;
+            for (int term : expansionIds.get(q)) {
+                cost[q] += postingDocs[term].length;
+            }
+        }
+        Arrays.sort(order, (x, y) -> Long.compare(cost[x], cost[y]));
+
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(docs.size());
+        try {
+            int required = 0;
+            for (int q : order) {
+                int bit = 1 << q;
+                int[] ids = expansionIds.get(q);
+                float[] boosts = expansionBoosts.get(q);
+                for (int e = 0; e < ids.length; e++) {
+                    accumulate(ids[e], boosts[e], bit, required, scratch);
+                }
+                required |= bit;
+            }
+            return topK(scratch, required, limit);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    // `matched` holds the bits of terms already processed; docs missing any of them are skipped
+    private void accumulate(int term, float boost, int bit, int matched, Scratch scratch) {
+        int[] postingDoc = postingDocs[term];
+        int[] postingFreq = postingFreqs[term];
+        float weight = boost * idf[term] * (K1 + 1);
+        for (int i = 0; i < postingDoc.length; i++) {
+            int doc = postingDoc[i];
+            int tf = postingFreq[i];
+            int mask = scratch.mask[doc];
+            if ((mask & matched) != matched) {
+                continue;
+            }
+            if (mask == 0) {
+                scratch.touched[scratch.touchedCount++] = doc;
+            }
+            scratch.mask[doc] |= bit;
+            scratch.scores[doc] += weight * tf / (tf + lengthNorm[doc]);
+        }
+    }
+
+    private List<Product> topK(Scratch scratch, int required, int limit) {
+        // Min-heap of doc ids ordered by (score, -doc); the root is the weakest kept hit
+        int[] heap = new int[limit];
+        int size = 0;
+        float[] scores = scratch.scores;
+        for (int i = 0; i < scratch.touchedCount; i++) {
+            int doc = scratch.touched[i];
+            if (scratch.mask[doc] != required) {
+                continue;
+            }
+            if (size < limit) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores);
+            } else if (better(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+        Product[] ranked = new Product[size];
+        while (size > 0) {
+            ranked[size - 1] = docs.get(heap[0]);
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return List.of(ranked);
+    }
+
+    private static boolean better(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], scores)) {
+                break;
+            }
+            int tmp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int weakest = left + 1 < size && better(heap[left], heap[left + 1], scores) ? left + 1 : left;
+            if (!better(heap[index], heap[weakest], scores)) {
+                return;
+            }
+            int tmp = heap[index];
+            heap[index] = heap[weakest];
+            heap[weakest] = tmp;
+            index = weakest;
+        }
+    }
+
+    // Exact term, then prefixes of longer terms, then near misses when neither matched
+    private boolean expand(String term, List<int[]> idsOut, List<float[]> boostsOut) {
+        IntList ids = new IntList();
+        List<Float> boosts = new ArrayList<>();
+        Integer exact = termIds.get(term);
+        if (exact != null) {
+            ids.add(exact);
+            boosts.add(1f);
+        }
+        if (term.length() >= 2) {
+            int from = Arrays.binarySearch(terms, term);
+            from = from >= 0 ? from + 1 : -from - 1;
+            for (int t = from; t < terms.length && ids.size() < MAX_PREFIX_EXPANSIONS && terms[t].startsWith(term); t++) {
+                ids.add(t);
+                boosts.add(PREFIX_BOOST);
+            }
+        }
+        if (ids.size() == 0) {
+            addFuzzyMatches(term, ids, boosts);
+        }
+        if (ids.size() == 0) {
+            return false;
+        }
+        float[] boostArray = new float[boosts.size()];
+        for (int i = 0; i < boostArray.length; i++) {
+            boostArray[i] = boosts.get(i);
+        }
+        idsOut.add(ids.toArray());
+        boostsOut.add(boostArray);
+        return true;
+    }
+
+    private void addFuzzyMatches(String term, IntList ids, List<Float> boosts) {
+        int maxEdits = term.length() < 4 ? 0 : term.length() < 8 ? 1 : 2;
+        if (maxEdits == 0) {
+            return;
+        }
+        Map<Integer, Integer> shared = new HashMap<>();
+        List<String> grams = trigrams(term);
+        for (String gram : grams) {
+            int[] candidates = trigramTerms.get(gram);
+            if (candidates != null) {
+                for (int t : candidates) {
+                    shared.merge(t, 1, Integer::sum);
+                }
+            }
+        }
+        // Each edit can break at most three trigrams
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+        shared.entrySet().stream()
+            .filter(e -> e.getValue() >= minShared)
+            .filter(e -> Math.abs(terms[e.getKey()].length() - term.length()) <= maxEdits)
+            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+            .map(Map.Entry::getKey)
+            .filter(t -> editDistance(term, terms[t], maxEdits) <= maxEdits)
+            .limit(MAX_FUZZY_EXPANSIONS)
+            .forEach(t -> {
+                ids.add(t);
+                boosts.add(FUZZY_BOOST);
+            });
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Optimal string alignment distance; stops early once every cell exceeds max
+    static int editDistance(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = curr;
+            curr = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    private static AnalyzedDoc analyze(Product product) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = addField(freqs, product.name(), NAME_WEIGHT)
+            + addField(freqs, product.brand(), BRAND_WEIGHT)
+            + addField(freqs, product.category(), CATEGORY_WEIGHT)
+            + addField(freqs, product.description(), DESCRIPTION_WEIGHT);
+        return new AnalyzedDoc(product, Map.copyOf(freqs), length);
+    }
+
+    private static int addField(Map<String, Integer> freqs, String text, int weight) {
+        List<String> fieldTerms = TextAnalyzer.terms(text);
+        for (String term : fieldTerms) {
+            freqs.merge(term, weight, Integer::sum);
+        }
+        return fieldTerms.size() * weight;
+    }
+
+    // Per-thread accumulators reused across queries; only touched slots are cleared
+    private static final class Scratch {
+        float[] scores = new float[0];
+        int[] mask = new int[0];
+        int[] touched = new int[0];
+        int touchedCount;
+
+        void ensureCapacity(int docs) {
+            if (scores.length < docs) {
+                scores = new float[docs];
+                mask = new int[docs];
+                touched = new int[docs];
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                scores[doc] = 0;
+                mask[doc] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
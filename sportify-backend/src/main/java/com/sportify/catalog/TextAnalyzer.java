@@ -0,0 +1,47 @@
+package com.sportify.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Splits text into lowercase alphanumeric terms. Apostrophes are dropped
+// rather than split on, so "Men's" indexes as "mens".
+final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "at", "by", "for", "from", "in", "into", "is", "it", "its",
+        "of", "on", "or", "the", "to", "with", "your"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (c != '\'' && c != '’') {
+                flush(current, terms);
+            }
+        }
+        flush(current, terms);
+        return terms;
+    }
+
+    private static void flush(StringBuilder current, List<String> terms) {
+        if (current.length() == 0) {
+            return;
+        }
+        String term = current.toString();
+        current.setLength(0);
+        if (!STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.sportify.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportify.ratelimit.AuthRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+// Throttles the unauthenticated auth endpoints before they reach BCrypt, the
+// OTP store or the email outbox. Rejected requests get a canned 429 body.
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    // Auth payloads are tiny; anything larger is not inspected for an email
+    private static final int MAX_INSPECTED_BODY = 4096;
+
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"message\":\"Too many requests. Try again later.\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private AuthRateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        // Chunked requests and requests without Content-Length are read too,
+        // up to the cap, so omitting the header cannot dodge the per-email bucket
+        CachedBodyRequest cached = null;
+        String email = null;
+        if (request.getContentLengthLong() <= MAX_INSPECTED_BODY) {
+            ServletInputStream in = request.getInputStream();
+            byte[] head = in.readNBytes(MAX_INSPECTED_BODY + 1);
+            if (head.length > 0) {
+                boolean complete = head.length <= MAX_INSPECTED_BODY;
+                cached = new CachedBodyRequest(request, complete
+                        ? new ByteArrayInputStream(head)
+                        : new SequenceInputStream(new ByteArrayInputStream(head), in));
+                if (complete) {
+                    email = extractEmail(head);
+                }
+            }
+        }
+
+        long retryAfterMillis = rateLimiter.tryAcquire(request.getRemoteAddr(), email);
+        if (retryAfterMillis > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf((retryAfterMillis + 999) / 1000));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(TOO_MANY_REQUESTS.length);
+            response.getOutputStream().write(TOO_MANY_REQUESTS);
+            return;
+        }
+        chain.doFilter(cached != null ? cached : request, response);
+    }
+
+    private String extractEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException e) {
+            // Malformed JSON is left for the controller to reject
+            return null;
+        }
+    }
+
+    // Replays the body that was read to find the email, followed by whatever
+    // was left unread when it ran past the cap
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final InputStream body;
+
+        CachedBodyRequest(HttpServletRequest request, InputStream body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already buffered, so the listener runs straight away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!finished) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    finished = b == -1;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = body.read(b, off, len);
+                    finished = n == -1;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sportify.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Picked up by Spring Boot's ObjectMapper; replaces reflective getter calls
+    // in response serializers with generated lambdas
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,6 +1,11 @@
 package com.sportify.config;
 
+import com.sportify.model.UserPrincipal;
 import com.sportify.service.JwtUtil;
+import com.sportify.service.TokenVersionRegistry;
+import com.sportify.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +13,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +27,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersions;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -31,23 +38,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractEmail(jwt);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt)) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserPrincipal principal = resolvePrincipal(authorizationHeader.substring(7));
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserPrincipal resolvePrincipal(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        UserPrincipal principal = jwtUtil.extractPrincipal(claims);
+        if (principal == null) {
+            // Token predates identity claims; fall back to the cached lookup.
+            // It carries no version, so it counts as version 0 and any logout
+            // or revokeAll since then invalidates it.
+            try {
+                principal = principalCache.get(claims.getSubject());
+            } catch (UsernameNotFoundException e) {
+                // User deleted since the token was issued
+                return null;
+            }
+        }
+        if (tokenVersions.isRevoked(principal.getId(), jwtUtil.extractTokenVersion(claims))) {
+            return null;
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sportify.config;
+
+import com.sportify.entity.InstanceLease;
+import com.sportify.repository.InstanceLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Components whose state lives only in this process's memory call require()
+// at startup. The first call takes the lease row in instance_leases and
+// startup fails if another live instance holds it, rather than letting two
+// instances silently disagree. The lease is renewed on a heartbeat and
+// released on shutdown; a crashed holder's lease goes stale after lease-ttl,
+// which is also the longest a restart waits for it.
+@Component
+public class SingleInstanceGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleInstanceGuard.class);
+    private static final String LEASE = "in-memory-state";
+
+    // Per process rather than per context, so test contexts sharing one JVM
+    // and one H2 database do not lock each other out
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    @Autowired
+    private InstanceLeaseRepository leaseRepository;
+
+    @Value("${app.single-instance.lease-ttl:30000}")
+    private long leaseTtlMillis;
+
+    private final Set<String> reasons = ConcurrentHashMap.newKeySet();
+
+    // Blocks until the lease is held, or throws once another instance has kept
+    // renewing it for a whole lease-ttl
+    public synchronized void require(String reason) {
+        if (reasons.isEmpty()) {
+            long deadline = System.currentTimeMillis() + leaseTtlMillis;
+            while (!tryAcquire()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IllegalStateException(reason + " supports a single instance, but instance "
+                            + holder() + " is running against the same database");
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the single-instance lease", e);
+                }
+            }
+            log.info("Holding the single-instance lease as {}", OWNER);
+        }
+        reasons.add(reason);
+    }
+
+    @Scheduled(fixedDelayString = "${app.single-instance.heartbeat:10000}")
+    public void renew() {
+        if (!reasons.isEmpty() && !tryAcquire()) {
+            log.error("Single-instance lease taken over by {}; state for {} may diverge", holder(), reasons);
+        }
+    }
+
+    @PreDestroy
+    void release() {
+        if (!reasons.isEmpty()) {
+            leaseRepository.release(LEASE, OWNER);
+        }
+    }
+
+    private boolean tryAcquire() {
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.claim(LEASE, OWNER, now, now.minusNanos(leaseTtlMillis * 1_000_000)) == 1) {
+            return true;
+        }
+        if (leaseRepository.existsById(LEASE)) {
+            return false;
+        }
+        try {
+            return leaseRepository.create(LEASE, OWNER, now) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+            return false;
+        }
+    }
+
+    private String holder() {
+        return leaseRepository.findById(LEASE).map(InstanceLease::getOwner).orElse("unknown");
+    }
+}
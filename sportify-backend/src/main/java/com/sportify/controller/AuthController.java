@@ -7,13 +7,18 @@ import com.sportify.model.LoginResponse;
 import com.sportify.model.MessageResponse;
 import com.sportify.model.OtpVerificationRequest;
 import com.sportify.model.SignupRequest;
+import com.sportify.model.UserPrincipal;
 import com.sportify.repository.UserRepository;
 import com.sportify.service.AuthService;
 import com.sportify.service.JwtUtil;
+import com.sportify.service.PasswordHashingBusyException;
+import com.sportify.service.TokenVersionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -32,6 +37,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenVersionRegistry tokenVersions;
+    
     // Signup
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody SignupRequest request) {
@@ -40,8 +48,11 @@ public class AuthController {
             return ResponseEntity.ok(new MessageResponse(
                 "Signup successful! OTP sent to " + request.getEmail()
             ));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
-            log.error("Signup error: " + e.getMessage());
+            log.debug("Signup rejected: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(new MessageResponse(e.getMessage()));
         }
@@ -83,7 +94,7 @@ public class AuthController {
             
             // Generate JWT token after OTP verification
             User user = userRepository.findByEmail(request.getEmail()).orElseThrow();
-            String token = jwtUtil.generateToken(user.getEmail());
+            String token = jwtUtil.generateToken(user);
             
             LoginResponse response = new LoginResponse();
             response.setToken(token);
@@ -104,9 +115,23 @@ public class AuthController {
         try {
             LoginResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse(e.getMessage()));
         }
     }
+    
+    // Logout: revokes every token issued to this user so far
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Not logged in"));
+        }
+        tokenVersions.revokeAll(principal.getId());
+        return ResponseEntity.ok(new MessageResponse("Logged out"));
+    }
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.sportify.controller;
 
 import com.sportify.entity.CartItem;
+import com.sportify.idempotency.IdempotencyService;
+import com.sportify.model.CartItemResponse;
 import com.sportify.model.CartRequest;
 import com.sportify.model.MessageResponse;
+import com.sportify.model.UserPrincipal;
 import com.sportify.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -18,31 +23,79 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/add")
-    public ResponseEntity<?> addToCart(@RequestHeader("Authorization") String token,
-                                       @RequestBody CartRequest request) {
+    public ResponseEntity<?> addToCart(@AuthenticationPrincipal UserPrincipal principal,
+                                       @RequestBody CartRequest request,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(principal.getId(), "cart.add", idempotencyKey, request,
+                    () -> doAddToCart(principal, request));
+        }
+        return doAddToCart(principal, request);
+    }
+
+    private ResponseEntity<?> doAddToCart(UserPrincipal principal, CartRequest request) {
         try {
-            cartService.addToCart(token, request);
+            cartService.addToCart(principal, request);
             return ResponseEntity.ok(new MessageResponse("Added to cart"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
+    @PutMapping("/update")
+    public ResponseEntity<?> updateQuantity(@AuthenticationPrincipal UserPrincipal principal,
+                                            @RequestBody CartRequest request) {
+        try {
+            cartService.updateQuantity(principal, request);
+            return ResponseEntity.ok(new MessageResponse("Cart updated"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/remove")
+    public ResponseEntity<?> removeItem(@AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestParam String productId,
+                                        @RequestParam(required = false) String size) {
+        try {
+            cartService.removeItem(principal, productId, size);
+            return ResponseEntity.ok(new MessageResponse("Removed from cart"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<?> getCart(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getCart(@AuthenticationPrincipal UserPrincipal principal) {
         try {
-            List<CartItem> cart = cartService.getCart(token);
+            List<CartItemResponse> cart = new ArrayList<>();
+            for (CartItem item : cartService.getCart(principal)) {
+                cart.add(CartItemResponse.from(item));
+            }
             return ResponseEntity.ok(cart);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
+    // Server-side totals for the checkout page, in paise
+    @GetMapping("/quote")
+    public ResponseEntity<?> quote(@AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(cartService.quote(principal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
     @DeleteMapping
-    public ResponseEntity<?> clearCart(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> clearCart(@AuthenticationPrincipal UserPrincipal principal) {
         try {
-            cartService.clearCart(token);
+            cartService.clearCart(principal);
             return ResponseEntity.ok(new MessageResponse("Cart cleared"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
@@ -0,0 +1,77 @@
+package com.sportify.controller;
+
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import com.sportify.inventory.InventoryService;
+import com.sportify.inventory.Reservation;
+import com.sportify.inventory.SkuKey;
+import com.sportify.model.MessageResponse;
+import com.sportify.model.ReservationRequest;
+import com.sportify.model.ReservationResponse;
+import com.sportify.model.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/inventory")
+@CrossOrigin(origins = "*")
+public class InventoryController {
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ProductCatalog catalog;
+    
+    // Live units per size; the catalog's availableSizes is only the seed
+    @GetMapping("/{productId}")
+    public ResponseEntity<?> getAvailability(@PathVariable String productId) {
+        Product product = catalog.findById(productId);
+        if (product == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Product not found"));
+        }
+        return ResponseEntity.ok(inventoryService.availability(product));
+    }
+    
+    // Holds stock for a checkout; pass the id as reservationId when creating the order
+    @PostMapping("/reservations")
+    public ResponseEntity<?> hold(@AuthenticationPrincipal UserPrincipal principal,
+                                  @RequestBody ReservationRequest request) {
+        try {
+            Map<SkuKey, Integer> lines = new HashMap<>();
+            for (ReservationRequest.Line line : request.getItems()) {
+                int quantity = line.getQuantity() != null ? line.getQuantity() : 1;
+                lines.merge(SkuKey.of(line.getProductId(), line.getSize()), quantity, Integer::sum);
+            }
+            Reservation reservation = inventoryService.hold(principal.getId(), lines);
+            return ResponseEntity.ok(ReservationResponse.from(reservation));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<?> cancel(@AuthenticationPrincipal UserPrincipal principal, @PathVariable String id) {
+        if (!inventoryService.cancel(id, principal.getId())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Reservation not found"));
+        }
+        return ResponseEntity.ok(new MessageResponse("Reservation released"));
+    }
+    
+    @PostMapping("/restock")
+    public ResponseEntity<?> restock(@RequestBody ReservationRequest.Line request) {
+        try {
+            int quantity = request.getQuantity() != null ? request.getQuantity() : 0;
+            inventoryService.restock(request.getProductId(), request.getSize(), quantity, "restock");
+            return ResponseEntity.ok(new MessageResponse("Restocked"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.sportify.controller;
 
 import com.sportify.entity.Order;
+import com.sportify.entity.OrderStage;
+import com.sportify.idempotency.IdempotencyService;
 import com.sportify.model.MessageResponse;
+import com.sportify.model.OrderHistoryPage;
 import com.sportify.model.OrderRequest;
+import com.sportify.model.OrderSummary;
+import com.sportify.model.UserPrincipal;
+import com.sportify.order.OrderPipeline;
 import com.sportify.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "*")
@@ -18,22 +23,59 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private OrderPipeline orderPipeline;
+    
     @PostMapping("/create")
-    public ResponseEntity<?> createOrder(@RequestHeader("Authorization") String token,
-                                         @RequestBody OrderRequest request) {
+    public ResponseEntity<?> createOrder(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestBody OrderRequest request,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(principal.getId(), "orders.create", idempotencyKey, request,
+                    () -> doCreateOrder(principal, request));
+        }
+        return doCreateOrder(principal, request);
+    }
+    
+    private ResponseEntity<?> doCreateOrder(UserPrincipal principal, OrderRequest request) {
         try {
-            Order order = orderService.createOrder(token, request);
-            return ResponseEntity.ok(order);
+            Order order = orderService.createOrder(principal, request);
+            return ResponseEntity.ok(OrderSummary.from(order));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
     
     @GetMapping("/my-orders")
-    public ResponseEntity<?> getMyOrders(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getMyOrders(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            OrderHistoryPage page = orderService.getOrderHistory(principal, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    // Fulfilment (admin only): queue the order for the pipeline's SHIP or DELIVER stage
+    @PostMapping("/{orderNumber}/ship")
+    public ResponseEntity<?> ship(@PathVariable String orderNumber) {
+        return fulfil(orderNumber, OrderStage.SHIP);
+    }
+    
+    @PostMapping("/{orderNumber}/deliver")
+    public ResponseEntity<?> deliver(@PathVariable String orderNumber) {
+        return fulfil(orderNumber, OrderStage.DELIVER);
+    }
+    
+    private ResponseEntity<?> fulfil(String orderNumber, OrderStage stage) {
         try {
-            List<Order> orders = orderService.getUserOrders(token);
-            return ResponseEntity.ok(orders);
+            orderPipeline.fulfil(orderNumber, stage);
+            return ResponseEntity.accepted().body(new MessageResponse("Order " + orderNumber + " queued for " + stage));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -0,0 +1,84 @@
+package com.sportify.controller;
+
+import com.sportify.catalog.CatalogPage;
+import com.sportify.catalog.CatalogSnapshot;
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import com.sportify.model.MessageResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+public class ProductController {
+    
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
+    @Autowired
+    private ProductCatalog catalog;
+    
+    // Repeat a parameter (or comma-separate values) to match any of them;
+    // facets=true wraps the result with per-value hit counts
+    @GetMapping
+    public ResponseEntity<?> listProducts(@RequestParam(required = false) List<String> category,
+                                          @RequestParam(required = false) List<String> type,
+                                          @RequestParam(required = false) List<String> brand,
+                                          @RequestParam(required = false) List<String> size,
+                                          @RequestParam(required = false) List<String> color,
+                                          @RequestParam(required = false) List<String> price,
+                                          @RequestParam(defaultValue = "false") boolean facets) {
+        CatalogSnapshot snapshot = catalog.snapshot();
+        Map<String, List<String>> selections = new HashMap<>();
+        putIfPresent(selections, "category", category);
+        putIfPresent(selections, "type", type);
+        putIfPresent(selections, "brand", brand);
+        putIfPresent(selections, "size", size);
+        putIfPresent(selections, "color", color);
+        putIfPresent(selections, "price", price);
+        
+        if (selections.isEmpty() && !facets) {
+            return ResponseEntity.ok(snapshot.all());
+        }
+        CatalogPage page = snapshot.filter(selections, facets);
+        return facets ? ResponseEntity.ok(page) : ResponseEntity.ok(page.products());
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> search(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalog.snapshot().search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS)));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProduct(@PathVariable String id) {
+        Product product = catalog.findById(id);
+        if (product == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Product not found"));
+        }
+        return ResponseEntity.ok(product);
+    }
+    
+    // Rebuilds the catalog from its source and swaps it in atomically
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            catalog.reload();
+            return ResponseEntity.ok(new MessageResponse("Catalog reloaded: " + catalog.snapshot().size() + " products"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    private static void putIfPresent(Map<String, List<String>> selections, String facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selections.put(facet, values);
+        }
+    }
+}
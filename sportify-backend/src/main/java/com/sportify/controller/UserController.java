@@ -2,9 +2,12 @@ package com.sportify.controller;
 
 import com.sportify.entity.User;
 import com.sportify.model.MessageResponse;
+import com.sportify.model.UserProfileResponse;
+import com.sportify.model.UserPrincipal;
 import com.sportify.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -18,20 +21,20 @@ public class UserController {
     private UserService userService;
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserPrincipal principal) {
         try {
-            User user = userService.getUserProfile(token);
-            return ResponseEntity.ok(user);
+            User user = userService.getUserProfile(principal);
+            return ResponseEntity.ok(UserProfileResponse.from(user));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<?> updateProfile(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal UserPrincipal principal,
                                            @RequestBody Map<String, String> updates) {
         try {
-            userService.updateProfile(token, updates.get("name"), updates.get("phone"));
+            userService.updateProfile(principal, updates.get("name"), updates.get("phone"));
             return ResponseEntity.ok(new MessageResponse("Profile updated"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
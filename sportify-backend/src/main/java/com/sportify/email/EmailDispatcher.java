@@ -0,0 +1,195 @@
+package com.sportify.email;
+
+import com.sportify.entity.EmailDeadLetter;
+import com.sportify.entity.EmailJob;
+import com.sportify.entity.EmailJobStatus;
+import com.sportify.metrics.LatencyTimers;
+import com.sportify.repository.EmailDeadLetterRepository;
+import com.sportify.repository.EmailJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains email_outbox: the poller claims due jobs in batches no larger than
+// the free worker capacity, and a fixed pool sends them through the shared
+// transport. Failures are retried with exponential backoff; jobs that run out
+// of attempts are moved to email_dead_letters.
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    @Autowired
+    private EmailJobRepository emailJobRepository;
+
+    @Autowired
+    private EmailDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private EmailTransport transport;
+
+    @Autowired
+    private EmailOutboxService outbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.email.workers:4}")
+    private int workers;
+
+    @Value("${app.email.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.email.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.email.backoff:2000}")
+    private long backoffMillis;
+
+    @Value("${app.email.max-backoff:300000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.email.stale-after:120000}")
+    private long staleAfterMillis;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+    private Timer sentTimer;
+    private Timer failedTimer;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "email-worker-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sentTimer = LatencyTimers.timer(meterRegistry, "sportify.email.send", "Transport send call", "outcome", "sent");
+        failedTimer = LatencyTimers.timer(meterRegistry, "sportify.email.send", "Transport send call", "outcome", "failed");
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.poll-interval:500}")
+    public void poll() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = emailJobRepository.findDueIds(EmailJobStatus.PENDING, now, PageRequest.of(0, capacity));
+        for (Long id : due) {
+            String token = UUID.randomUUID().toString();
+            if (emailJobRepository.claim(id, now, token) == 1) {
+                executor.execute(() -> deliver(id, token));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.stale-after:120000}")
+    public void releaseStale() {
+        int released = emailJobRepository.releaseStale(LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000));
+        if (released > 0) {
+            log.warn("Released {} email jobs stuck in SENDING", released);
+        }
+    }
+
+    private void deliver(Long id, String token) {
+        // A claim released as stale while this task sat in the queue belongs
+        // to whoever claimed the job since
+        if (emailJobRepository.renewClaim(id, token, LocalDateTime.now()) == 0) {
+            return;
+        }
+        EmailJob job = emailJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        EmailOutboxService.RenderedEmail email = outbox.render(job);
+        if (email == null) {
+            // The code was redeemed or expired while queued; nothing worth sending
+            emailJobRepository.deleteById(id);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            transport.send(job.getRecipient(), email.subject(), email.htmlBody());
+        } catch (Exception e) {
+            failedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            fail(job, token, e);
+            return;
+        }
+        sentTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        // Unconditional: once sent, the job must not go out again even if its
+        // claim was released in the meantime
+        emailJobRepository.deleteById(id);
+    }
+
+    private void fail(EmailJob job, String token, Exception e) {
+        job.setAttempts(job.getAttempts() + 1);
+        job.setLastError(truncate(e.getMessage()));
+        if (job.getAttempts() >= maxAttempts) {
+            boolean owned = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (emailJobRepository.deleteClaimed(job.getId(), token) == 0) {
+                    return false;
+                }
+                deadLetterRepository.save(EmailDeadLetter.from(job));
+                return true;
+            }));
+            if (owned) {
+                log.error("Email job {} dead-lettered after {} attempts: {}",
+                        job.getId(), job.getAttempts(), job.getLastError());
+            }
+            return;
+        }
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(job.getAttempts() - 1, 20));
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(delay * 1_000_000);
+        if (emailJobRepository.reschedule(job.getId(), token, job.getAttempts(), job.getLastError(), nextAttemptAt) == 1) {
+            log.warn("Email job {} failed (attempt {}), retrying in {} ms: {}",
+                    job.getId(), job.getAttempts(), delay, job.getLastError());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+}
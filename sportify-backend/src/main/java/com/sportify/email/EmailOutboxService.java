@@ -0,0 +1,100 @@
+package com.sportify.email;
+
+import com.sportify.entity.EmailJob;
+import com.sportify.entity.EmailJobType;
+import com.sportify.entity.OrderStatus;
+import com.sportify.otp.OtpStore;
+import com.sportify.repository.EmailJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class EmailOutboxService {
+
+    private static final String OTP_SUBJECT = "SPORTIFY Verification Code";
+    private static final String OTP_PLACEHOLDER = "{{otp}}";
+
+    @Autowired
+    private EmailJobRepository emailJobRepository;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    public record RenderedEmail(String subject, String htmlBody) {
+    }
+
+    // Joins the caller's transaction, so the email is queued only if the OTP
+    // is actually stored. The row holds a template, not the code: the code is
+    // read from the OTP store when the job is sent, by whichever instance
+    // claims it. That is why the memory store refuses to start next to
+    // another instance.
+    public void enqueueOtpEmail(String toEmail, String userName) {
+        EmailJob job = new EmailJob();
+        job.setType(EmailJobType.OTP);
+        job.setRecipient(toEmail);
+        job.setSubject(OTP_SUBJECT);
+        job.setHtmlBody(getEmailHtml(OTP_PLACEHOLDER, userName));
+        emailJobRepository.save(job);
+    }
+
+    // Subject and body to send for the job, or null when it is an OTP email
+    // whose code has since been redeemed or has expired
+    public RenderedEmail render(EmailJob job) {
+        if (job.getType() != EmailJobType.OTP) {
+            return new RenderedEmail(job.getSubject(), job.getHtmlBody());
+        }
+        String code = otpStore.pending(job.getRecipient());
+        if (code == null) {
+            return null;
+        }
+        return new RenderedEmail(job.getSubject() + ": " + code, job.getHtmlBody().replace(OTP_PLACEHOLDER, code));
+    }
+
+    public void enqueueOrderStatusEmail(String toEmail, String userName, String orderNumber,
+                                        OrderStatus status, Double totalAmount) {
+        String headline = switch (status) {
+            case CONFIRMED -> "Your order is confirmed";
+            case SHIPPED -> "Your order is on its way";
+            case DELIVERED -> "Your order has been delivered";
+            default -> "Your order is " + status.name().toLowerCase();
+        };
+        EmailJob job = new EmailJob();
+        job.setRecipient(toEmail);
+        job.setSubject("SPORTIFY Order " + orderNumber + ": " + headline);
+        job.setHtmlBody(getOrderEmailHtml(userName, orderNumber, headline, totalAmount));
+        emailJobRepository.save(job);
+    }
+
+    private String getOrderEmailHtml(String userName, String orderNumber, String headline, Double totalAmount) {
+        return "<html>" +
+            "<body style='font-family: Arial; background-color: #f5f5f5; padding: 20px;'>" +
+            "<div style='max-width: 600px; margin: 0 auto; background-color: white; padding: 30px; border-radius: 8px;'>" +
+            "<h2 style='color: #000;'>" + headline + ", " + userName + "!</h2>" +
+            "<p>Order number: <strong>" + orderNumber + "</strong></p>" +
+            (totalAmount != null ? "<p>Order total: <strong>₹ " + String.format("%,.2f", totalAmount) + "</strong></p>" : "") +
+            "<p>You can follow your order from the Orders page on SPORTIFY.</p>" +
+            "<hr style='border: none; border-top: 1px solid #e5e5e5;'>" +
+            "<p style='font-size: 12px; color: #757575;'>© 2025 SPORTIFY. All rights reserved.</p>" +
+            "</div>" +
+            "</body>" +
+            "</html>";
+    }
+
+    private String getEmailHtml(String otpCode, String userName) {
+        return "<html>" +
+            "<body style='font-family: Arial; background-color: #f5f5f5; padding: 20px;'>" +
+            "<div style='max-width: 600px; margin: 0 auto; background-color: white; padding: 30px; border-radius: 8px;'>" +
+            "<h2 style='color: #000;'>Welcome to SPORTIFY, " + userName + "!</h2>" +
+            "<p>Your verification code is:</p>" +
+            "<div style='background-color: #000; color: white; padding: 20px; text-align: center; border-radius: 8px; margin: 20px 0;'>" +
+            "<h1 style='letter-spacing: 8px; margin: 0;'>" + otpCode + "</h1>" +
+            "</div>" +
+            "<p>This code expires in <strong>10 minutes</strong></p>" +
+            "<p>If you didn't request this code, please ignore this email.</p>" +
+            "<hr style='border: none; border-top: 1px solid #e5e5e5;'>" +
+            "<p style='font-size: 12px; color: #757575;'>© 2025 SPORTIFY. All rights reserved.</p>" +
+            "</div>" +
+            "</body>" +
+            "</html>";
+    }
+}
@@ -0,0 +1,10 @@
+package com.sportify.email;
+
+import java.io.IOException;
+
+// Delivers one rendered email; implementations must be safe to call from
+// several dispatcher workers at once
+public interface EmailTransport {
+
+    void send(String to, String subject, String htmlBody) throws IOException;
+}
@@ -0,0 +1,121 @@
+package com.sportify.email;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportify.logging.LogRedaction;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Local transport for tests, development and load runs. Nothing is sent; when
+// app.email.stub.directory is set, each message is written there as
+// <n>-<recipient>.html so OTPs can be read without ever being logged, and with
+// inbox-size > 0 the latest message per recipient is kept in memory.
+// latency and failure-rate make it behave like a slow or flaky provider.
+@Component
+@ConditionalOnProperty(name = "app.email.transport", havingValue = "stub")
+public class StubEmailTransport implements EmailTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(StubEmailTransport.class);
+
+    @Value("${app.email.stub.directory:}")
+    private String directory;
+
+    @Value("${app.email.stub.inbox-size:0}")
+    private long inboxSize;
+
+    @Value("${app.email.stub.latency:0}")
+    private long latencyMillis;
+
+    @Value("${app.email.stub.latency-jitter:0}")
+    private long latencyJitterMillis;
+
+    @Value("${app.email.stub.failure-rate:0}")
+    private double failureRate;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private Path dropDirectory;
+    private Cache<String, SentEmail> inbox;
+    private volatile Consumer<String> sentListener = to -> { };
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!directory.isBlank()) {
+            dropDirectory = Files.createDirectories(Path.of(directory));
+        }
+        if (inboxSize > 0) {
+            inbox = Caffeine.newBuilder().maximumSize(inboxSize).build();
+        }
+    }
+
+    @Override
+    public void send(String to, String subject, String htmlBody) throws IOException {
+        simulateProvider();
+        long n = sent.incrementAndGet();
+        if (inbox != null) {
+            inbox.put(to, new SentEmail(subject, htmlBody));
+        }
+        sentListener.accept(to);
+        if (dropDirectory != null) {
+            String file = n + "-" + to.replaceAll("[^A-Za-z0-9@._-]", "_") + ".html";
+            Files.writeString(dropDirectory.resolve(file),
+                    "<!-- " + subject + " -->\n" + htmlBody, StandardCharsets.UTF_8);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Stub email {} to {}", n, LogRedaction.email(to));
+        }
+    }
+
+    // Sleeps like a provider round trip, then fails the configured share of
+    // sends the way a provider error would, so the dispatcher retries them
+    private void simulateProvider() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (latencyJitterMillis > 0 ? random.nextLong(latencyJitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sending", e);
+            }
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            failed.incrementAndGet();
+            throw new IOException("Injected stub failure");
+        }
+    }
+
+    // Latest message delivered to the recipient, or null; needs inbox-size > 0
+    public SentEmail latestTo(String to) {
+        return inbox != null ? inbox.getIfPresent(to) : null;
+    }
+
+    // Called with the recipient after each message lands in the inbox, so the
+    // load harness can wait for OTPs without polling
+    public void onSent(Consumer<String> listener) {
+        this.sentListener = listener;
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public record SentEmail(String subject, String htmlBody) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.sportify.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -7,22 +8,29 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_cart_user_product_size", columnNames = {"user_id", "product_id", "size"})
+})
 @EntityListeners(AuditingEntityListener.class)
 public class CartItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "product_id", nullable = false)
     private String productId;
     private String productName;
     private String productImage;
     private Double price;
     private Integer quantity;
+
+    // Empty string for one-size products so the unique key stays comparable
+    @Column(nullable = false)
     private String size;
 
     @CreatedDate
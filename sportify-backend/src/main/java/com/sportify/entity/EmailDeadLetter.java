@@ -0,0 +1,107 @@
+package com.sportify.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_dead_letters")
+public class EmailDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String recipient;
+    private String subject;
+
+    @Lob
+    private String htmlBody;
+
+    private int attempts;
+    private String lastError;
+    private LocalDateTime enqueuedAt;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        failedAt = LocalDateTime.now();
+    }
+
+    public static EmailDeadLetter from(EmailJob job) {
+        EmailDeadLetter deadLetter = new EmailDeadLetter();
+        deadLetter.setRecipient(job.getRecipient());
+        deadLetter.setSubject(job.getSubject());
+        deadLetter.setHtmlBody(job.getHtmlBody());
+        deadLetter.setAttempts(job.getAttempts());
+        deadLetter.setLastError(job.getLastError());
+        deadLetter.setEnqueuedAt(job.getCreatedAt());
+        return deadLetter;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+
+    public void setHtmlBody(String htmlBody) {
+        this.htmlBody = htmlBody;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(LocalDateTime enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+}
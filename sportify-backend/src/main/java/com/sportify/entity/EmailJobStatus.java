@@ -0,0 +1,5 @@
+package com.sportify.entity;
+
+public enum EmailJobStatus {
+    PENDING, SENDING
+}
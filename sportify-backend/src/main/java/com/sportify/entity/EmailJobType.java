@@ -0,0 +1,8 @@
+package com.sportify.entity;
+
+// MESSAGE jobs are sent as stored; OTP jobs hold a template and get the
+// recipient's pending code filled in at send time, so codes never sit in
+// email_outbox or email_dead_letters
+public enum EmailJobType {
+    MESSAGE, OTP
+}
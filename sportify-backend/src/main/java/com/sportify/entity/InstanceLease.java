@@ -0,0 +1,44 @@
+package com.sportify.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Named lease held by one running instance and renewed on a heartbeat; see SingleInstanceGuard
+@Entity
+@Table(name = "instance_leases")
+public class InstanceLease {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "renewed_at", nullable = false)
+    private LocalDateTime renewedAt;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getRenewedAt() {
+        return renewedAt;
+    }
+
+    public void setRenewedAt(LocalDateTime renewedAt) {
+        this.renewedAt = renewedAt;
+    }
+}
@@ -0,0 +1,97 @@
+package com.sportify.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Append-only stock movement: negative for sales, positive for restocks.
+// Sales only ever insert here, so checkouts never contend on a stock row.
+@Entity
+@Table(name = "inventory_ledger", indexes = {
+    @Index(name = "idx_inventory_ledger_applied", columnList = "applied, id")
+})
+public class InventoryLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_ledger_seq")
+    @SequenceGenerator(name = "inventory_ledger_seq", sequenceName = "inventory_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private String size;
+
+    private int delta;
+
+    // Order number or restock note
+    private String reference;
+
+    // Set once the delta has been folded into inventory_stock
+    private boolean applied = false;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sportify.entity;
+
+import jakarta.persistence.*;
+
+// Stock on hand per product and size as of the last ledger compaction
+@Entity
+@Table(name = "inventory_stock", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_inventory_product_size", columnNames = {"product_id", "size"})
+})
+public class InventoryStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    // "" for one-size products, as in cart_items
+    @Column(nullable = false)
+    private String size;
+
+    private int quantity;
+
+    // Compaction from several instances must not lose each other's updates
+    @Version
+    private Long version;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
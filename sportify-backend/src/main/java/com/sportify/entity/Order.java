@@ -1,18 +1,24 @@
 package com.sportify.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id")
+})
 public class Order {
+    // Pooled sequence (table-backed on MySQL) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     
@@ -20,6 +26,19 @@ public class Order {
     private String orderNumber;
     
     private Double totalAmount;
+
+    // Exact server-computed amounts; totalAmount is kept in rupees for existing clients
+    @Column(name = "subtotal_paise")
+    private Long subtotalPaise;
+
+    @Column(name = "tax_paise")
+    private Long taxPaise;
+
+    @Column(name = "shipping_paise")
+    private Long shippingPaise;
+
+    @Column(name = "total_paise")
+    private Long totalPaise;
     
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
@@ -41,9 +60,6 @@ public class Order {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        if (orderNumber == null) {
-            orderNumber = "SP" + System.currentTimeMillis();
-        }
     }
 
     // Getters and Setters
@@ -79,6 +95,38 @@ public class Order {
         this.totalAmount = totalAmount;
     }
 
+    public Long getSubtotalPaise() {
+        return subtotalPaise;
+    }
+
+    public void setSubtotalPaise(Long subtotalPaise) {
+        this.subtotalPaise = subtotalPaise;
+    }
+
+    public Long getTaxPaise() {
+        return taxPaise;
+    }
+
+    public void setTaxPaise(Long taxPaise) {
+        this.taxPaise = taxPaise;
+    }
+
+    public Long getShippingPaise() {
+        return shippingPaise;
+    }
+
+    public void setShippingPaise(Long shippingPaise) {
+        this.shippingPaise = shippingPaise;
+    }
+
+    public Long getTotalPaise() {
+        return totalPaise;
+    }
+
+    public void setTotalPaise(Long totalPaise) {
+        this.totalPaise = totalPaise;
+    }
+
     public OrderStatus getStatus() {
         return status;
     }
@@ -0,0 +1,155 @@
+package com.sportify.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Outbox row for the order pipeline. The first one is written in the same
+// transaction as the order; each stage deletes its own row and inserts the
+// next. Rows that run out of attempts stay behind as FAILED.
+@Entity
+@Table(name = "order_events", indexes = {
+    @Index(name = "idx_order_events_due", columnList = "stage, status, next_attempt_at")
+})
+public class OrderEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventStatus status = OrderEventStatus.PENDING;
+
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+
+    // Set by each claim; updates from a worker whose claim was released as stale no longer match
+    @Column(name = "claim_token")
+    private String claimToken;
+
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public OrderEvent() {
+    }
+
+    public OrderEvent(Long orderId, Long userId, OrderStage stage, LocalDateTime nextAttemptAt) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.stage = stage;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public OrderStage getStage() {
+        return stage;
+    }
+
+    public void setStage(OrderStage stage) {
+        this.stage = stage;
+    }
+
+    public OrderEventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderEventStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,5 @@
+package com.sportify.entity;
+
+public enum OrderEventStatus {
+    PENDING, PROCESSING, FAILED
+}
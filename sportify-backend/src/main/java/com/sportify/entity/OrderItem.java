@@ -1,14 +1,18 @@
 package com.sportify.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "order_items")
 public class OrderItem {
+    // Pooled sequence (table-backed on MySQL) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "order_id")
     private Order order;
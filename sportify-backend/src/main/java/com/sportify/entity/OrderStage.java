@@ -0,0 +1,29 @@
+package com.sportify.entity;
+
+// Fulfilment steps run by the order pipeline; each moves an order from one
+// status to the next and schedules the following stage
+public enum OrderStage {
+    CONFIRM(OrderStatus.PENDING, OrderStatus.CONFIRMED),
+    SHIP(OrderStatus.CONFIRMED, OrderStatus.SHIPPED),
+    DELIVER(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    private final OrderStatus from;
+    private final OrderStatus to;
+
+    OrderStage(OrderStatus from, OrderStatus to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public OrderStatus getFrom() {
+        return from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+
+    public OrderStage next() {
+        return this == DELIVER ? null : values()[ordinal() + 1];
+    }
+}
@@ -1,5 +1,6 @@
 package com.sportify.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -14,6 +15,7 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
+    @JsonIgnore
     @Column(nullable = false)
     private String password;
 
@@ -25,12 +27,12 @@ public class User {
 
     private boolean emailVerified = false;
 
+    @JsonIgnore
     @Column(unique = true)
     private String verificationToken;
 
-    private String otpCode;
-    private LocalDateTime otpExpiry;
-    private boolean otpVerified = false;
+    // Bumped to revoke every token issued before the change
+    private int tokenVersion = 0;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -113,27 +115,11 @@ public class User {
         this.createdAt = createdAt;
     }
 
-    public String getOtpCode() {
-        return otpCode;
+    public int getTokenVersion() {
+        return tokenVersion;
     }
 
-    public void setOtpCode(String otpCode) {
-        this.otpCode = otpCode;
-    }
-
-    public LocalDateTime getOtpExpiry() {
-        return otpExpiry;
-    }
-
-    public void setOtpExpiry(LocalDateTime otpExpiry) {
-        this.otpExpiry = otpExpiry;
-    }
-
-    public boolean isOtpVerified() {
-        return otpVerified;
-    }
-
-    public void setOtpVerified(boolean otpVerified) {
-        this.otpVerified = otpVerified;
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
     }
 }
\ No newline at end of file
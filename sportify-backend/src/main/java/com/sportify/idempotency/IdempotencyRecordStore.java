@@ -0,0 +1,12 @@
+package com.sportify.idempotency;
+
+import java.util.Optional;
+
+// Durable second level behind the in-memory store, so completed responses
+// survive a restart
+public interface IdempotencyRecordStore {
+
+    Optional<StoredResponse> find(String key);
+
+    void save(String key, StoredResponse response);
+}
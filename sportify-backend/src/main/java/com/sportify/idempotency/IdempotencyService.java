@@ -0,0 +1,136 @@
+package com.sportify.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportify.model.MessageResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs a request once per (user, operation, Idempotency-Key). The first
+// request installs a future in a bounded TTL map; duplicates that arrive
+// while it runs wait on that future, and later retries get the stored
+// response back without touching the service layer. Only 2xx responses are
+// kept: the controllers turn every exception into a 400, so a transient
+// failure would otherwise be replayed for the whole TTL.
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private IdempotencyRecordStore recordStore;
+
+    @Value("${app.idempotency.ttl:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.idempotency.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${app.idempotency.wait-timeout:10000}")
+    private long waitTimeoutMillis;
+
+    private Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .build();
+    }
+
+    public ResponseEntity<?> execute(Long userId, String operation, String idempotencyKey,
+                                     Object request, Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid Idempotency-Key"));
+        }
+        String key = userId + ":" + operation + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return replay(existing, fingerprint);
+        }
+
+        Optional<StoredResponse> persisted = recordStore != null ? recordStore.find(key) : Optional.empty();
+        if (persisted.isPresent()) {
+            mine.complete(persisted.get());
+            return replay(mine, fingerprint);
+        }
+
+        StoredResponse stored;
+        try {
+            ResponseEntity<?> response = action.get();
+            stored = new StoredResponse(response.getStatusCode().value(), fingerprint, response.getBody());
+        } catch (RuntimeException e) {
+            // Nothing worth replaying; let the next retry run for real
+            responses.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        if (stored.status() < 200 || stored.status() >= 300) {
+            // Duplicates already waiting get this response; the next retry runs again
+            responses.asMap().remove(key, mine);
+        } else if (recordStore != null) {
+            recordStore.save(key, stored);
+        }
+        mine.complete(stored);
+        return ResponseEntity.status(stored.status()).body(stored.body());
+    }
+
+    private ResponseEntity<?> replay(CompletableFuture<StoredResponse> first, String fingerprint) {
+        StoredResponse stored;
+        try {
+            stored = first.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("A request with this Idempotency-Key is still in progress"));
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("The original request failed. Retry with the same key."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new MessageResponse("Idempotency-Key was already used with a different request"));
+        }
+        return ResponseEntity.status(stored.status())
+            .header(REPLAYED_HEADER, "true")
+            .body(stored.body());
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sportify.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportify.entity.IdempotencyRecord;
+import com.sportify.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.idempotency.persistent", havingValue = "true")
+public class JpaIdempotencyRecordStore implements IdempotencyRecordStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaIdempotencyRecordStore.class);
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl:86400000}")
+    private long ttlMillis;
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return repository.findById(key).map(record -> {
+            try {
+                Object body = record.getBody() != null ? objectMapper.readTree(record.getBody()) : null;
+                return new StoredResponse(record.getStatus(), record.getFingerprint(), body);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Corrupt idempotency record " + key, e);
+            }
+        });
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        try {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setKey(key);
+            record.setFingerprint(response.fingerprint());
+            record.setStatus(response.status());
+            record.setBody(response.body() != null ? objectMapper.writeValueAsString(response.body()) : null);
+            repository.save(record);
+        } catch (JsonProcessingException | DataAccessException e) {
+            // The in-memory copy still answers retries on this instance
+            log.warn("Could not persist idempotency record {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        repository.deleteOlderThan(LocalDateTime.now().minusNanos(ttlMillis * 1_000_000));
+    }
+}
@@ -0,0 +1,6 @@
+package com.sportify.idempotency;
+
+// Outcome of the first request for a key; body is the object the controller
+// returned, or a JsonNode when it was read back from the persistent table
+public record StoredResponse(int status, String fingerprint, Object body) {
+}
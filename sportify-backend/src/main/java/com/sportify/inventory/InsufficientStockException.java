@@ -0,0 +1,8 @@
+package com.sportify.inventory;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
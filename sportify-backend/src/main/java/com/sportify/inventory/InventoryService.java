@@ -0,0 +1,324 @@
+package com.sportify.inventory;
+
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import com.sportify.config.SingleInstanceGuard;
+import com.sportify.entity.InventoryLedgerEntry;
+import com.sportify.entity.InventoryStock;
+import com.sportify.repository.InventoryLedgerRepository;
+import com.sportify.repository.InventoryStockRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sellable stock is held in memory (StockCounters) and every confirmed
+// movement is appended to inventory_ledger; a scheduled compaction folds the
+// ledger into inventory_stock under optimistic versioning.
+//
+// Counters and holds live in this instance only, so startup takes the
+// single-instance lease and a second instance against the same database fails
+// to start. A restart rebuilds the counters from the stock table and ledger;
+// open holds are dropped, which returns their units, and a checkout that
+// still carries one is asked to try again.
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    @Autowired
+    private InventoryStockRepository stockRepository;
+
+    @Autowired
+    private InventoryLedgerRepository ledgerRepository;
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SingleInstanceGuard singleInstanceGuard;
+
+    @Value("${app.inventory.seed-quantity:50}")
+    private int seedQuantity;
+
+    @Value("${app.inventory.reservation-ttl:600000}")
+    private long reservationTtlMillis;
+
+    @Value("${app.inventory.compaction-batch:1000}")
+    private int compactionBatch;
+
+    @Value("${app.inventory.max-holds-per-user:3}")
+    private int maxHoldsPerUser;
+
+    @Value("${app.inventory.max-held-units-per-user:20}")
+    private int maxHeldUnitsPerUser;
+
+    private final StockCounters counters = new StockCounters();
+
+    // Checkout holds that have not been turned into orders yet
+    private final Map<String, Reservation> pending = new ConcurrentHashMap<>();
+
+    // Open holds and the units in them per user, charged before any stock is
+    // taken so one account cannot hold the shelf
+    private final Map<Long, HoldQuota> quotas = new ConcurrentHashMap<>();
+
+    private record HoldQuota(int holds, int units) {
+    }
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void load() {
+        singleInstanceGuard.require("the inventory service");
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> seedMissingStock());
+
+        Map<SkuKey, Integer> units = new HashMap<>();
+        for (InventoryStock stock : stockRepository.findAll()) {
+            units.put(SkuKey.of(stock.getProductId(), stock.getSize()), stock.getQuantity());
+        }
+        for (InventoryLedgerRepository.PendingDeltaView delta : ledgerRepository.sumUnapplied()) {
+            units.merge(SkuKey.of(delta.getProductId(), delta.getSize()), delta.getDelta().intValue(), Integer::sum);
+        }
+        units.forEach(counters::set);
+        log.info("Loaded stock for {} SKUs", units.size());
+    }
+
+    // Catalog SKUs without a stock row start with seed-quantity units if the
+    // catalog lists the size as available, otherwise with none
+    private void seedMissingStock() {
+        Set<SkuKey> existing = new HashSet<>();
+        for (InventoryStock stock : stockRepository.findAll()) {
+            existing.add(SkuKey.of(stock.getProductId(), stock.getSize()));
+        }
+        List<InventoryStock> missing = new ArrayList<>();
+        for (Product product : catalog.snapshot().all()) {
+            List<String> sizes = product.sizes().isEmpty() ? List.of("") : product.sizes();
+            for (String size : sizes) {
+                if (existing.contains(SkuKey.of(product.id(), size))) {
+                    continue;
+                }
+                InventoryStock stock = new InventoryStock();
+                stock.setProductId(product.id());
+                stock.setSize(size);
+                boolean available = size.isEmpty() || product.availableSizes().contains(size);
+                stock.setQuantity(available ? seedQuantity : 0);
+                missing.add(stock);
+            }
+        }
+        stockRepository.saveAll(missing);
+    }
+
+    public int available(String productId, String size) {
+        return counters.available(SkuKey.of(productId, size));
+    }
+
+    // Size -> sellable units for every size the catalog lists
+    public Map<String, Integer> availability(Product product) {
+        Map<String, Integer> bySize = new LinkedHashMap<>();
+        List<String> sizes = product.sizes().isEmpty() ? List.of("") : product.sizes();
+        for (String size : sizes) {
+            bySize.put(size, counters.available(SkuKey.of(product.id(), size)));
+        }
+        return bySize;
+    }
+
+    // Takes the units now and holds them for reservation-ttl; the hold is
+    // released by the sweeper unless an order claims it first
+    public Reservation hold(Long userId, Map<SkuKey, Integer> lines) {
+        int units = totalUnits(lines);
+        chargeQuota(userId, units);
+        Reservation reservation;
+        try {
+            reservation = take(userId, lines, System.currentTimeMillis() + reservationTtlMillis);
+        } catch (RuntimeException e) {
+            refundQuota(userId, units);
+            throw e;
+        }
+        pending.put(reservation.id(), reservation);
+        return reservation;
+    }
+
+    // Takes the units for an order being placed right now, without a hold
+    public Reservation reserve(Long userId, Map<SkuKey, Integer> lines) {
+        return take(userId, lines, Long.MAX_VALUE);
+    }
+
+    // Removing the hold is the claim: after this neither the sweeper nor another
+    // order can release or reuse it
+    public Reservation claim(String reservationId, Long userId) {
+        Reservation reservation = pending.get(reservationId);
+        if (reservation == null || !reservation.userId().equals(userId) || !pending.remove(reservationId, reservation)) {
+            throw new InsufficientStockException("Reservation expired. Please try again.");
+        }
+        refundQuota(reservation);
+        return reservation;
+    }
+
+    public boolean cancel(String reservationId, Long userId) {
+        Reservation reservation = pending.get(reservationId);
+        if (reservation == null || !reservation.userId().equals(userId) || !pending.remove(reservationId, reservation)) {
+            return false;
+        }
+        refundQuota(reservation);
+        release(reservation);
+        return true;
+    }
+
+    public void release(Reservation reservation) {
+        counters.giveBack(reservation.lines());
+    }
+
+    // Appends the sale to the ledger; call inside the transaction that stores the order
+    public void recordSale(Reservation reservation, String reference) {
+        List<InventoryLedgerEntry> entries = new ArrayList<>(reservation.lines().size());
+        reservation.lines().forEach((sku, units) -> entries.add(entry(sku, -units, reference)));
+        ledgerRepository.saveAll(entries);
+    }
+
+    public void restock(String productId, String size, int units, String reference) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Restock quantity must be positive");
+        }
+        SkuKey sku = SkuKey.of(productId, size);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (stockRepository.findByProductIdAndSize(sku.productId(), sku.size()).isEmpty()) {
+                InventoryStock stock = new InventoryStock();
+                stock.setProductId(sku.productId());
+                stock.setSize(sku.size());
+                stockRepository.save(stock);
+            }
+            ledgerRepository.save(entry(sku, units, reference));
+        });
+        counters.add(sku, units);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.sweep-interval:1000}")
+    public void releaseExpired() {
+        long now = System.currentTimeMillis();
+        for (Reservation reservation : pending.values()) {
+            if (reservation.expiresAtMillis() <= now && pending.remove(reservation.id(), reservation)) {
+                refundQuota(reservation);
+                release(reservation);
+            }
+        }
+    }
+
+    // Folds unapplied ledger rows into inventory_stock. A concurrent
+    // compaction elsewhere makes the version check fail; the batch then rolls
+    // back and is picked up again on the next run.
+    @Scheduled(fixedDelayString = "${app.inventory.compaction-interval:10000}")
+    public void compactLedger() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<InventoryLedgerEntry> entries = ledgerRepository.findUnapplied(PageRequest.of(0, compactionBatch));
+                if (entries.isEmpty()) {
+                    return;
+                }
+                Map<SkuKey, Integer> deltas = new HashMap<>();
+                List<Long> ids = new ArrayList<>(entries.size());
+                for (InventoryLedgerEntry entry : entries) {
+                    deltas.merge(SkuKey.of(entry.getProductId(), entry.getSize()), entry.getDelta(), Integer::sum);
+                    ids.add(entry.getId());
+                }
+                deltas.forEach((sku, delta) -> {
+                    InventoryStock stock = stockRepository.findByProductIdAndSize(sku.productId(), sku.size())
+                        .orElseThrow(() -> new IllegalStateException("No stock row for " + sku));
+                    stock.setQuantity(stock.getQuantity() + delta);
+                });
+                ledgerRepository.markApplied(ids);
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("Ledger compaction raced with another instance; retrying next run");
+        }
+    }
+
+    private static InventoryLedgerEntry entry(SkuKey sku, int delta, String reference) {
+        InventoryLedgerEntry entry = new InventoryLedgerEntry();
+        entry.setProductId(sku.productId());
+        entry.setSize(sku.size());
+        entry.setDelta(delta);
+        entry.setReference(reference);
+        return entry;
+    }
+
+    private Reservation take(Long userId, Map<SkuKey, Integer> lines, long expiresAtMillis) {
+        // Rejects empty and non-positive lines
+        totalUnits(lines);
+        SkuKey shortSku = counters.tryTake(lines);
+        if (shortSku != null) {
+            throw new InsufficientStockException(describeShortage(shortSku, lines.get(shortSku)));
+        }
+        return new Reservation(UUID.randomUUID().toString(), userId, lines, expiresAtMillis);
+    }
+
+    private static int totalUnits(Map<SkuKey, Integer> lines) {
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to reserve");
+        }
+        long units = 0;
+        for (Map.Entry<SkuKey, Integer> line : lines.entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for " + line.getKey().productId());
+            }
+            units += line.getValue();
+        }
+        return (int) Math.min(units, Integer.MAX_VALUE);
+    }
+
+    // Throwing inside compute() leaves the user's quota as it was
+    private void chargeQuota(Long userId, int units) {
+        quotas.compute(userId, (id, quota) -> {
+            int holds = quota != null ? quota.holds() : 0;
+            int held = quota != null ? quota.units() : 0;
+            if (holds >= maxHoldsPerUser) {
+                throw new IllegalStateException("You already have " + holds
+                        + " open reservations. Complete or cancel one first.");
+            }
+            if (units > maxHeldUnitsPerUser - held) {
+                throw new IllegalStateException("Reservations are limited to " + maxHeldUnitsPerUser
+                        + " units per customer");
+            }
+            return new HoldQuota(holds + 1, held + units);
+        });
+    }
+
+    private void refundQuota(Reservation reservation) {
+        refundQuota(reservation.userId(), totalUnits(reservation.lines()));
+    }
+
+    private void refundQuota(Long userId, int units) {
+        quotas.computeIfPresent(userId, (id, quota) ->
+                quota.holds() <= 1 ? null : new HoldQuota(quota.holds() - 1, quota.units() - units));
+    }
+
+    private String describeShortage(SkuKey sku, int wanted) {
+        Product product = catalog.findById(sku.productId());
+        String name = product != null ? product.name() : sku.productId();
+        String size = sku.size().isEmpty() ? "" : " (size " + sku.size() + ")";
+        int left = counters.available(sku);
+        return left == 0
+            ? name + size + " is out of stock"
+            : "Only " + left + " left of " + name + size + ", requested " + wanted;
+    }
+}
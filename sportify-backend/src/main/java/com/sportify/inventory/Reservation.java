@@ -0,0 +1,11 @@
+package com.sportify.inventory;
+
+import java.util.Map;
+
+// Units held for one checkout; lines are aggregated per SKU
+public record Reservation(String id, Long userId, Map<SkuKey, Integer> lines, long expiresAtMillis) {
+
+    public Reservation {
+        lines = Map.copyOf(lines);
+    }
+}
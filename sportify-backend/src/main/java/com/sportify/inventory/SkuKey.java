@@ -0,0 +1,9 @@
+package com.sportify.inventory;
+
+// Stock is tracked per product and size; size is "" for one-size products
+public record SkuKey(String productId, String size) {
+
+    public static SkuKey of(String productId, String size) {
+        return new SkuKey(productId, size != null ? size.trim() : "");
+    }
+}
@@ -0,0 +1,64 @@
+package com.sportify.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sellable units per SKU. Taking stock is a CAS loop on the SKU's own counter,
+// so buyers of different SKUs never interact and buyers of the same SKU
+// retry instead of queueing on a lock. A multi-line take is all-or-nothing:
+// lines already taken are handed back if a later line is short.
+public class StockCounters {
+
+    private final Map<SkuKey, AtomicInteger> available = new ConcurrentHashMap<>();
+
+    public void set(SkuKey sku, int units) {
+        available.computeIfAbsent(sku, k -> new AtomicInteger()).set(units);
+    }
+
+    public int available(SkuKey sku) {
+        AtomicInteger counter = available.get(sku);
+        return counter != null ? counter.get() : 0;
+    }
+
+    // Returns null on success, otherwise the first SKU that could not be covered
+    public SkuKey tryTake(Map<SkuKey, Integer> lines) {
+        List<Map.Entry<SkuKey, Integer>> taken = new ArrayList<>(lines.size());
+        for (Map.Entry<SkuKey, Integer> line : lines.entrySet()) {
+            if (!tryTake(line.getKey(), line.getValue())) {
+                for (Map.Entry<SkuKey, Integer> undo : taken) {
+                    add(undo.getKey(), undo.getValue());
+                }
+                return line.getKey();
+            }
+            taken.add(line);
+        }
+        return null;
+    }
+
+    public void giveBack(Map<SkuKey, Integer> lines) {
+        lines.forEach(this::add);
+    }
+
+    public void add(SkuKey sku, int units) {
+        available.computeIfAbsent(sku, k -> new AtomicInteger()).addAndGet(units);
+    }
+
+    private boolean tryTake(SkuKey sku, int units) {
+        AtomicInteger counter = available.get(sku);
+        if (counter == null) {
+            return false;
+        }
+        while (true) {
+            int current = counter.get();
+            if (current < units) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - units)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sportify.logging;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Masks personal data before it reaches a log line. Call sites use email()
+// for values they log on purpose; RedactingMessageConverter applies mask()
+// to every rendered message as a safety net.
+public final class LogRedaction {
+
+    private static final Pattern EMAIL = Pattern.compile("([A-Za-z0-9._%+-])[A-Za-z0-9._%+-]*@([A-Za-z0-9.-]+)");
+    private static final Pattern OTP = Pattern.compile("(?i)\\b(otp|code)(\\s*[:=]?\\s*)\\d{4,8}\\b");
+
+    private LogRedaction() {
+    }
+
+    // "jane.doe@example.com" -> "j***@example.com"
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    public static String mask(String message) {
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        // Cheap pre-checks keep the regexes off the common path
+        String masked = message;
+        if (masked.indexOf('@') >= 0) {
+            masked = EMAIL.matcher(masked).replaceAll("$1***@$2");
+        }
+        if (hasDigitRun(masked)) {
+            Matcher otp = OTP.matcher(masked);
+            masked = otp.replaceAll("$1$2******");
+        }
+        return masked;
+    }
+
+    private static boolean hasDigitRun(String s) {
+        int run = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isDigit(s.charAt(i))) {
+                if (++run == 4) {
+                    return true;
+                }
+            } else {
+                run = 0;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sportify.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+// %maskedMsg in logback-spring.xml. Encoding happens on the async appender's
+// worker thread, so the masking cost stays off request threads.
+public class RedactingMessageConverter extends MessageConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return LogRedaction.mask(event.getFormattedMessage());
+    }
+}
@@ -0,0 +1,112 @@
+package com.sportify.metrics;
+
+import com.sportify.email.EmailDispatcher;
+import com.sportify.entity.OrderStage;
+import com.sportify.order.OrderPipeline;
+import com.sportify.order.StageMetrics;
+import com.sportify.pricing.PricingEngine;
+import com.sportify.ratelimit.AuthRateLimiter;
+import com.sportify.service.PasswordHashingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Exposes the counters components already keep for themselves (queues,
+// admissions, pipeline stages, caches) without changing how they count
+@Component
+public class ComponentMetricsBinder implements MeterBinder {
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private OrderPipeline orderPipeline;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "sportify.auth.rate.limit", "Auth requests by rate-limit decision",
+                authRateLimiter, AuthRateLimiter::getAdmittedCount, "decision", "admitted");
+        counter(registry, "sportify.auth.rate.limit", "Auth requests by rate-limit decision",
+                authRateLimiter, AuthRateLimiter::getRejectedCount, "decision", "rejected");
+
+        counter(registry, "sportify.password.rejected", "Hashes refused because the pool was saturated",
+                passwordHashing, PasswordHashingService::getRejectedCount);
+        Gauge.builder("sportify.password.queue.depth", passwordHashing, PasswordHashingService::getQueueDepth)
+            .description("Hashes waiting for a thread")
+            .register(registry);
+
+        Gauge.builder("sportify.email.queue.depth", emailDispatcher, EmailDispatcher::getQueueDepth)
+            .description("Claimed emails waiting for a worker")
+            .register(registry);
+        Gauge.builder("sportify.email.workers.active", emailDispatcher, EmailDispatcher::getActiveWorkers)
+            .register(registry);
+
+        for (OrderStage stage : OrderStage.values()) {
+            bindStage(registry, stage, orderPipeline.getMetrics(stage));
+        }
+
+        counter(registry, "sportify.pricing.cache", "Quote cache lookups",
+                pricingEngine, PricingEngine::getCacheHits, "result", "hit");
+        counter(registry, "sportify.pricing.cache", "Quote cache lookups",
+                pricingEngine, PricingEngine::getCacheMisses, "result", "miss");
+    }
+
+    private void bindStage(MeterRegistry registry, OrderStage stage, StageMetrics metrics) {
+        String tag = stage.name().toLowerCase();
+        counter(registry, "sportify.order.pipeline.events", "Pipeline events by result",
+                metrics, StageMetrics::getCompleted, "stage", tag, "result", "completed");
+        counter(registry, "sportify.order.pipeline.events", "Pipeline events by result",
+                metrics, StageMetrics::getSkipped, "stage", tag, "result", "skipped");
+        counter(registry, "sportify.order.pipeline.events", "Pipeline events by result",
+                metrics, StageMetrics::getFailed, "stage", tag, "result", "failed");
+        counter(registry, "sportify.order.pipeline.events", "Pipeline events by result",
+                metrics, StageMetrics::getDeadLettered, "stage", tag, "result", "dead");
+        timing(registry, "sportify.order.pipeline.processing", "Stage work, claim to commit",
+                metrics.getProcessing(), "stage", tag);
+        timing(registry, "sportify.order.pipeline.lag", "Due time to pick-up",
+                metrics.getLag(), "stage", tag);
+        Gauge.builder("sportify.order.pipeline.queue.depth", metrics, StageMetrics::getQueueDepth)
+            .tags("stage", tag)
+            .register(registry);
+        Gauge.builder("sportify.order.pipeline.backlog", orderPipeline, p -> p.getBacklog(stage))
+            .description("Pending events in order_events")
+            .tags("stage", tag)
+            .register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String description, T source,
+                                    ToDoubleFunction<T> count, String... tags) {
+        FunctionCounter.builder(name, source, count)
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static void timing(MeterRegistry registry, String name, String description, Timing timing,
+                               String... tags) {
+        FunctionTimer.builder(name, timing, Timing::getCount, Timing::getTotalNanos, TimeUnit.NANOSECONDS)
+            .description(description)
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(name + ".max", timing, t -> t.getMaxNanos() / 1e6)
+            .description(description + ", slowest seen (ms)")
+            .tags(tags)
+            .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.sportify.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+// Timers for request-path stages. All of them publish a percentile histogram
+// so Prometheus can aggregate p50/p99 across instances, with the bucket range
+// bounded to what these stages can plausibly take.
+public final class LatencyTimers {
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private LatencyTimers() {
+    }
+
+    public static Timer timer(MeterRegistry registry, String name, String description, String... tags) {
+        return Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(registry);
+    }
+}
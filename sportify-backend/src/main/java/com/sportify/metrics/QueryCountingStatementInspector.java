@@ -0,0 +1,14 @@
+package com.sportify.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered through hibernate.session_factory.statement_inspector; Hibernate
+// calls it once for every SQL statement it prepares
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats.statementPrepared();
+        return sql;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sportify.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records how many SQL statements and entity loads each API request caused,
+// tagged by route template (not raw path) to keep cardinality bounded. Runs
+// ahead of the security chain so authentication lookups are counted too.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary[]> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long[] counts = RequestQueryStats.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary[] route = summariesFor(request.getMethod(),
+                    pattern != null ? pattern.toString() : "UNMATCHED");
+            route[0].record(counts[0]);
+            route[1].record(counts[1]);
+        }
+    }
+
+    private DistributionSummary[] summariesFor(String method, String uri) {
+        return summaries.computeIfAbsent(method + " " + uri, key -> new DistributionSummary[] {
+            summary("sportify.request.queries", "SQL statements prepared per request", method, uri),
+            summary("sportify.request.entity.loads", "Entities loaded per request", method, uri)
+        });
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .tags("method", method, "uri", uri)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(1000.0)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.sportify.metrics;
+
+// Per-thread tally of SQL statements and entity loads, opened and closed by
+// RequestQueryMetricsFilter around each API request. Work on other threads
+// (outbox, pipeline, write-behind flushes) is never counted against a request.
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryStats() {
+    }
+
+    static void begin() {
+        CURRENT.set(new long[2]);
+    }
+
+    // Returns {statements, entityLoads} and stops counting on this thread
+    static long[] end() {
+        long[] counts = CURRENT.get();
+        CURRENT.remove();
+        return counts != null ? counts : new long[2];
+    }
+
+    static void statementPrepared() {
+        long[] counts = CURRENT.get();
+        if (counts != null) {
+            counts[0]++;
+        }
+    }
+
+    static void entityLoaded() {
+        long[] counts = CURRENT.get();
+        if (counts != null) {
+            counts[1]++;
+        }
+    }
+}
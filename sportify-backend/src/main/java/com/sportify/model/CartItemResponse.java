@@ -0,0 +1,18 @@
+package com.sportify.model;
+
+import com.sportify.entity.CartItem;
+
+public record CartItemResponse(
+    Long id,
+    String productId,
+    String productName,
+    String productImage,
+    Double price,
+    Integer quantity,
+    String size
+) {
+    public static CartItemResponse from(CartItem item) {
+        return new CartItemResponse(item.getId(), item.getProductId(), item.getProductName(),
+                item.getProductImage(), item.getPrice(), item.getQuantity(), item.getSize());
+    }
+}
@@ -1,6 +1,9 @@
 package com.sportify.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+
 public class CartRequest {
+    @JsonAlias("id")
     private String productId;
     private String productName;
     private String productImage;
@@ -0,0 +1,7 @@
+package com.sportify.model;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record OrderHistoryPage(List<OrderSummary> orders, String nextCursor) {
+}
@@ -0,0 +1,18 @@
+package com.sportify.model;
+
+import com.sportify.entity.OrderItem;
+
+public record OrderLineSummary(
+    String productId,
+    String productName,
+    String productImage,
+    Double price,
+    Integer quantity,
+    String size,
+    String color
+) {
+    public static OrderLineSummary from(OrderItem item) {
+        return new OrderLineSummary(item.getProductId(), item.getProductName(), item.getProductImage(),
+                item.getPrice(), item.getQuantity(), item.getSize(), item.getColor());
+    }
+}
@@ -9,6 +9,8 @@ public class OrderRequest {
     private ShippingAddress shippingAddress;
     private List<OrderItem> items;
     private Double totalAmount;
+    // Optional checkout hold from POST /api/inventory/reservations
+    private String reservationId;
 
     // Getters and Setters
     public ShippingAddress getShippingAddress() {
@@ -34,4 +36,12 @@ public class OrderRequest {
     public void setTotalAmount(Double totalAmount) {
         this.totalAmount = totalAmount;
     }
-}
\ No newline at end of file
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+}
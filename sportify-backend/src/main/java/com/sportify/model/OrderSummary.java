@@ -0,0 +1,37 @@
+package com.sportify.model;
+
+import com.sportify.entity.Order;
+import com.sportify.entity.OrderItem;
+import com.sportify.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record OrderSummary(
+    Long id,
+    String orderNumber,
+    Double totalAmount,
+    OrderStatus status,
+    LocalDateTime createdAt,
+    String shippingName,
+    String shippingAddress,
+    String shippingCity,
+    String shippingState,
+    String shippingPin,
+    String shippingPhone,
+    List<OrderLineSummary> items
+) {
+    // Only reads the items already attached to the entity; never initializes the user
+    public static OrderSummary from(Order order) {
+        List<OrderLineSummary> lines = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                lines.add(OrderLineSummary.from(item));
+            }
+        }
+        return new OrderSummary(order.getId(), order.getOrderNumber(), order.getTotalAmount(), order.getStatus(),
+                order.getCreatedAt(), order.getShippingName(), order.getShippingAddress(), order.getShippingCity(),
+                order.getShippingState(), order.getShippingPin(), order.getShippingPhone(), lines);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sportify.model;
+
+import java.util.List;
+
+public class ReservationRequest {
+    private List<Line> items;
+
+    public static class Line {
+        private String productId;
+        private String size;
+        private Integer quantity;
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public void setProductId(String productId) {
+            this.productId = productId;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public void setSize(String size) {
+            this.size = size;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public List<Line> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Line> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sportify.model;
+
+import com.sportify.inventory.Reservation;
+
+public record ReservationResponse(String reservationId, long expiresAt) {
+
+    public static ReservationResponse from(Reservation reservation) {
+        return new ReservationResponse(reservation.id(), reservation.expiresAtMillis());
+    }
+}
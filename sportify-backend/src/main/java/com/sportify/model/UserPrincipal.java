@@ -0,0 +1,45 @@
+package com.sportify.model;
+
+import com.sportify.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+// Authenticated caller as resolved once per token; carries just enough to
+// scope cart/order/user queries without reloading the User entity.
+public final class UserPrincipal {
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final boolean emailVerified;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long id, String email, Role role, boolean emailVerified) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.emailVerified = emailVerified;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isEmailVerified() {
+        return emailVerified;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sportify.model;
+
+import com.sportify.entity.Role;
+import com.sportify.entity.User;
+
+import java.time.LocalDateTime;
+
+// Public view of a user; never carries password, OTP or verification token
+public record UserProfileResponse(
+    Long id,
+    String email,
+    String name,
+    String phone,
+    Role role,
+    boolean emailVerified,
+    LocalDateTime createdAt
+) {
+    public static UserProfileResponse from(User user) {
+        return new UserProfileResponse(user.getId(), user.getEmail(), user.getName(), user.getPhone(),
+                user.getRole(), user.isEmailVerified(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,71 @@
+package com.sportify.order;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// orders and order_items moved from IDENTITY to pooled sequences. On a schema
+// that already holds rows, ddl-auto creates the sequences starting at 1 and
+// new ids would collide with existing ones, so each sequence is moved past
+// max(id) before the first insert. Fresh schemas have nothing to seed.
+@Component
+public class OrderIdSequences {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdSequences.class);
+
+    // table -> sequence; allocation size must match the entities' @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "orders", "orders_seq",
+        "order_items", "order_items_seq");
+    private static final long ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected so the schema (and the sequences) exist before seeding
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void seed() {
+        String database = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        SEQUENCES.forEach((table, sequence) -> seed(database, table, sequence));
+    }
+
+    private void seed(String database, String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out (value - allocation, value], so the
+        // next value must be at least max(id) + allocation
+        long next = maxId + ALLOCATION_SIZE;
+        int moved;
+        if (database.equalsIgnoreCase("MySQL") || database.equalsIgnoreCase("MariaDB")) {
+            // Hibernate emulates sequences on MySQL with a one-row next_val table
+            moved = jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", next, next);
+        } else if (database.equalsIgnoreCase("H2")) {
+            Long current = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, sequence);
+            moved = current != null && current < next ? 1 : 0;
+            if (moved == 1) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + next);
+            }
+        } else {
+            throw new IllegalStateException("Cannot check " + sequence + " on " + database
+                + "; set it past max(id) of " + table + " (" + maxId + ") before starting");
+        }
+        if (moved > 0) {
+            log.info("Moved {} to {} past existing {} rows", sequence, next, table);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.sportify.order;
+
+import com.sportify.email.EmailOutboxService;
+import com.sportify.entity.Order;
+import com.sportify.entity.OrderEvent;
+import com.sportify.entity.OrderEventStatus;
+import com.sportify.entity.OrderStage;
+import com.sportify.repository.OrderEventRepository;
+import com.sportify.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Moves placed orders through CONFIRMED, SHIPPED and DELIVERED off the
+// request path. Checkout only inserts a CONFIRM event next to the order;
+// each stage has its own small pool and bounded queue, and the poller claims
+// no more events for a stage than its queue has room for, so a slow stage
+// backs up in order_events instead of in memory or in checkout latency.
+//
+// SHIP and DELIVER are queued by fulfilment (the admin endpoints on
+// OrderController) unless auto-fulfil is on, which schedules each after a
+// fixed delay for demos and load tests.
+@Component
+public class OrderPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPipeline.class);
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.orders.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${app.orders.pipeline.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.orders.pipeline.auto-fulfil:false}")
+    private boolean autoFulfil;
+
+    @Value("${app.orders.pipeline.ship-after:60000}")
+    private long shipAfterMillis;
+
+    @Value("${app.orders.pipeline.deliver-after:300000}")
+    private long deliverAfterMillis;
+
+    @Value("${app.orders.pipeline.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.orders.pipeline.backoff:2000}")
+    private long backoffMillis;
+
+    @Value("${app.orders.pipeline.max-backoff:300000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.orders.pipeline.stale-after:120000}")
+    private long staleAfterMillis;
+
+    private final Map<OrderStage, ThreadPoolExecutor> executors = new EnumMap<>(OrderStage.class);
+    private final Map<OrderStage, StageMetrics> metrics = new EnumMap<>(OrderStage.class);
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        for (OrderStage stage : OrderStage.values()) {
+            String prefix = "order-" + stage.name().toLowerCase() + "-";
+            AtomicInteger threadIds = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, prefix + threadIds.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            executors.put(stage, executor);
+            metrics.put(stage, new StageMetrics(executor));
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Joins the caller's transaction, so the event exists only if the order does
+    public void submit(Order order) {
+        orderEventRepository.save(new OrderEvent(order.getId(), order.getUser().getId(), OrderStage.CONFIRM, null));
+    }
+
+    public StageMetrics getMetrics(OrderStage stage) {
+        return metrics.get(stage);
+    }
+
+    public long getBacklog(OrderStage stage) {
+        return orderEventRepository.countByStageAndStatus(stage, OrderEventStatus.PENDING);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.pipeline.poll-interval:500}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderStage stage : OrderStage.values()) {
+            ThreadPoolExecutor executor = executors.get(stage);
+            int capacity = executor.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                continue;
+            }
+            List<Long> due = orderEventRepository.findDueIds(stage, OrderEventStatus.PENDING, now,
+                    PageRequest.of(0, capacity));
+            for (Long id : due) {
+                String token = UUID.randomUUID().toString();
+                if (orderEventRepository.claim(id, now, token) == 1) {
+                    executor.execute(() -> process(stage, id, token));
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.pipeline.stale-after:120000}")
+    public void releaseStale() {
+        int released = orderEventRepository.releaseStale(LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000));
+        if (released > 0) {
+            log.warn("Released {} order events stuck in PROCESSING", released);
+        }
+    }
+
+    // Queues SHIP or DELIVER for an order that has reached the stage's starting status
+    public void fulfil(String orderNumber, OrderStage stage) {
+        if (stage == OrderStage.CONFIRM) {
+            throw new IllegalArgumentException("Orders are confirmed automatically");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.findByOrderNumber(orderNumber)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (order.getStatus() != stage.getFrom()) {
+                throw new RuntimeException("Order " + orderNumber + " is " + order.getStatus() + ", not " + stage.getFrom());
+            }
+            if (orderEventRepository.existsByOrderIdAndStageAndStatusIn(order.getId(), stage,
+                    List.of(OrderEventStatus.PENDING, OrderEventStatus.PROCESSING))) {
+                throw new RuntimeException("Order " + orderNumber + " is already queued for " + stage);
+            }
+            orderEventRepository.save(new OrderEvent(order.getId(), order.getUser().getId(), stage, null));
+        });
+    }
+
+    private void process(OrderStage stage, Long eventId, String token) {
+        // A claim released as stale while this task sat in the queue belongs
+        // to whoever claimed the event since
+        if (orderEventRepository.renewClaim(eventId, token, LocalDateTime.now()) == 0) {
+            return;
+        }
+        OrderEvent event = orderEventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            return;
+        }
+        StageMetrics stageMetrics = metrics.get(stage);
+        stageMetrics.lag(Duration.between(event.getNextAttemptAt(), LocalDateTime.now()).toNanos());
+        long started = System.nanoTime();
+        boolean advanced;
+        try {
+            advanced = Boolean.TRUE.equals(transactionTemplate.execute(status -> advance(event, token)));
+        } catch (Exception e) {
+            // Rolled back, so the event row is still there to reschedule
+            fail(event, token, e);
+            return;
+        }
+        if (!advanced) {
+            stageMetrics.skipped();
+            return;
+        }
+        stageMetrics.completed(System.nanoTime() - started);
+    }
+
+    // Status change, notification and hand-off to the next stage commit together
+    private boolean advance(OrderEvent event, String token) {
+        OrderStage stage = event.getStage();
+        if (orderEventRepository.deleteClaimed(event.getId(), token) == 0) {
+            return false;
+        }
+        if (orderRepository.advanceStatus(event.getOrderId(), stage.getFrom(), stage.getTo()) == 0) {
+            return false;
+        }
+        orderRepository.findContactById(event.getOrderId()).ifPresent(contact ->
+                emailOutboxService.enqueueOrderStatusEmail(contact.getEmail(), contact.getName(),
+                        contact.getOrderNumber(), stage.getTo(), contact.getTotalAmount()));
+        OrderStage next = stage.next();
+        if (next != null && autoFulfil) {
+            long delay = next == OrderStage.SHIP ? shipAfterMillis : deliverAfterMillis;
+            orderEventRepository.save(new OrderEvent(event.getOrderId(), event.getUserId(), next,
+                    LocalDateTime.now().plusNanos(delay * 1_000_000)));
+        }
+        return true;
+    }
+
+    // Both outcomes are conditional on the claim token; a worker whose claim
+    // was released as stale leaves the event to its new owner
+    private void fail(OrderEvent event, String token, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        String lastError = truncate(e.getMessage());
+        boolean dead = attempts >= maxAttempts;
+        if (dead) {
+            if (orderEventRepository.markFailed(event.getId(), token, attempts, lastError) == 1) {
+                metrics.get(event.getStage()).failed(true);
+                log.error("Order {} stage {} failed after {} attempts: {}",
+                        event.getOrderId(), event.getStage(), attempts, lastError);
+            }
+            return;
+        }
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempts - 1, 20));
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(delay * 1_000_000);
+        if (orderEventRepository.reschedule(event.getId(), token, attempts, lastError, nextAttemptAt) == 1) {
+            metrics.get(event.getStage()).failed(false);
+            log.warn("Order {} stage {} failed (attempt {}), retrying in {} ms: {}",
+                    event.getOrderId(), event.getStage(), attempts, delay, lastError);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+}
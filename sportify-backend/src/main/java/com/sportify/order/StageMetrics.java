@@ -0,0 +1,74 @@
+package com.sportify.order;
+
+import com.sportify.metrics.Timing;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-stage counters; lag is the time from an event becoming due to a worker
+// picking it up, which grows first when a stage falls behind
+public final class StageMetrics {
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final Timing processing = new Timing();
+    private final Timing lag = new Timing();
+
+    StageMetrics(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    void completed(long nanos) {
+        completed.increment();
+        processing.record(nanos);
+    }
+
+    void skipped() {
+        skipped.increment();
+    }
+
+    void failed(boolean dead) {
+        failed.increment();
+        if (dead) {
+            deadLettered.increment();
+        }
+    }
+
+    void lag(long nanos) {
+        lag.record(Math.max(0, nanos));
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.sum();
+    }
+
+    public Timing getProcessing() {
+        return processing;
+    }
+
+    public Timing getLag() {
+        return lag;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+}
@@ -0,0 +1,111 @@
+package com.sportify.otp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.sportify.config.SingleInstanceGuard;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Default store: codes live in a Caffeine map whose per-entry expiry is driven
+// by its timer wheel, and the system scheduler evicts them promptly instead of
+// waiting for the next access. Verification runs inside compute(), which is
+// atomic per key.
+//
+// Codes exist only in this instance: another one could neither verify them
+// nor render them into the OTP email it dequeues (and would drop that email).
+// Startup therefore takes the single-instance lease; use app.otp.store=jpa to
+// run several instances.
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    @Autowired
+    private SingleInstanceGuard singleInstanceGuard;
+
+    @Value("${app.otp.ttl:600000}")
+    private long ttlMillis;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.otp.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, PendingOtp> codes;
+
+    private record PendingOtp(String code, long expiresAtNanos, int attempts) {
+        PendingOtp withAttempt() {
+            return new PendingOtp(code, expiresAtNanos, attempts + 1);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        singleInstanceGuard.require("app.otp.store=memory");
+        codes = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new PendingOtpExpiry())
+            .scheduler(Scheduler.systemScheduler())
+            .build();
+    }
+
+    @Override
+    public void issue(String email, String code) {
+        codes.put(email, new PendingOtp(code, System.nanoTime() + ttlMillis * 1_000_000, 0));
+    }
+
+    @Override
+    public OtpVerification verify(String email, String code) {
+        OtpVerification[] outcome = {OtpVerification.MISSING};
+        codes.asMap().computeIfPresent(email, (key, pending) -> {
+            if (System.nanoTime() - pending.expiresAtNanos() >= 0) {
+                outcome[0] = OtpVerification.EXPIRED;
+                return null;
+            }
+            if (pending.code().equals(code)) {
+                outcome[0] = OtpVerification.VERIFIED;
+                return null;
+            }
+            PendingOtp next = pending.withAttempt();
+            if (next.attempts() >= maxAttempts) {
+                outcome[0] = OtpVerification.TOO_MANY_ATTEMPTS;
+                return null;
+            }
+            outcome[0] = OtpVerification.MISMATCH;
+            return next;
+        });
+        return outcome[0];
+    }
+
+    @Override
+    public String pending(String email) {
+        PendingOtp pending = codes.getIfPresent(email);
+        if (pending == null || System.nanoTime() - pending.expiresAtNanos() >= 0) {
+            return null;
+        }
+        return pending.code();
+    }
+
+    // Failed attempts replace the entry but keep its original deadline
+    private static final class PendingOtpExpiry implements Expiry<String, PendingOtp> {
+        @Override
+        public long expireAfterCreate(String email, PendingOtp pending, long currentTime) {
+            return Math.max(0, pending.expiresAtNanos() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, PendingOtp pending, long currentTime, long currentDuration) {
+            return Math.max(0, pending.expiresAtNanos() - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, PendingOtp pending, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sportify.otp;
+
+import com.sportify.entity.OtpCode;
+import com.sportify.repository.OtpCodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Persistent store for deployments where codes must survive a restart or be
+// shared by several instances. Each step is a single conditional statement on
+// the otp_codes row, so users rows are never locked by OTP traffic.
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    @Value("${app.otp.ttl:600000}")
+    private long ttlMillis;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Override
+    @Transactional
+    public void issue(String email, String code) {
+        OtpCode otp = new OtpCode();
+        otp.setEmail(email);
+        otp.setCode(code);
+        otp.setExpiresAt(LocalDateTime.now().plusNanos(ttlMillis * 1_000_000));
+        otpCodeRepository.save(otp);
+    }
+
+    @Override
+    @Transactional
+    public OtpVerification verify(String email, String code) {
+        LocalDateTime now = LocalDateTime.now();
+        if (otpCodeRepository.deleteMatching(email, code, now) == 1) {
+            return OtpVerification.VERIFIED;
+        }
+        if (otpCodeRepository.recordFailedAttempt(email, now) == 0) {
+            return otpCodeRepository.deleteExpired(email, now) > 0
+                ? OtpVerification.EXPIRED
+                : OtpVerification.MISSING;
+        }
+        if (otpCodeRepository.deleteIfExhausted(email, maxAttempts) > 0) {
+            return OtpVerification.TOO_MANY_ATTEMPTS;
+        }
+        return OtpVerification.MISMATCH;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String pending(String email) {
+        return otpCodeRepository.findById(email)
+            .filter(otp -> otp.getExpiresAt().isAfter(LocalDateTime.now()))
+            .map(OtpCode::getCode)
+            .orElse(null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval:60000}")
+    @Transactional
+    public void purgeExpired() {
+        otpCodeRepository.deleteAllExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,17 @@
+package com.sportify.otp;
+
+// Holds pending one-time codes keyed by email, outside the users table
+public interface OtpStore {
+
+    // Stores a fresh code for the email, replacing any pending one
+    void issue(String email, String code);
+
+    // Checks the code and, on a match, removes it in the same atomic step so a
+    // code can only ever be redeemed once. A wrong guess counts as an attempt;
+    // once the limit is reached the pending code is discarded.
+    OtpVerification verify(String email, String code);
+
+    // The unexpired code pending for the email, or null; read by the email
+    // dispatcher when it renders the OTP message
+    String pending(String email);
+}
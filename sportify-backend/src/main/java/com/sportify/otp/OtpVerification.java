@@ -0,0 +1,9 @@
+package com.sportify.otp;
+
+public enum OtpVerification {
+    VERIFIED,
+    MISSING,
+    EXPIRED,
+    MISMATCH,
+    TOO_MANY_ATTEMPTS
+}
@@ -0,0 +1,35 @@
+package com.sportify.pricing;
+
+// Amounts are carried as long paise (1/100 rupee) so sums and tax splits are
+// exact; rupee doubles only appear at the API edge for existing clients.
+public final class Money {
+
+    public static final int MINOR_UNITS = 100;
+    public static final int BASIS_POINTS = 10_000;
+
+    private Money() {
+    }
+
+    public static long rupeesToPaise(long rupees) {
+        return Math.multiplyExact(rupees, MINOR_UNITS);
+    }
+
+    public static double paiseToRupees(long paise) {
+        return paise / (double) MINOR_UNITS;
+    }
+
+    // Rounds numerator / denominator half-up; both must be non-negative
+    static long divideHalfUp(long numerator, long denominator) {
+        return Math.addExact(numerator, denominator / 2) / denominator;
+    }
+
+    // Tax charged on top of a net amount
+    static long exclusiveTax(long netPaise, int rateBps) {
+        return divideHalfUp(Math.multiplyExact(netPaise, rateBps), BASIS_POINTS);
+    }
+
+    // Tax contained in a gross (tax-inclusive) amount
+    static long inclusiveTax(long grossPaise, int rateBps) {
+        return divideHalfUp(Math.multiplyExact(grossPaise, rateBps), BASIS_POINTS + rateBps);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sportify.pricing;
+
+// Pure fixed-point arithmetic over parallel primitive arrays. Tax is
+// computed and rounded per line so every line's tax can be shown and the
+// order tax is exactly their sum.
+public final class PriceCalculator {
+
+    private PriceCalculator() {
+    }
+
+    public static PriceQuote price(long[] unitPaise, int[] quantities, PricingRules rules) {
+        if (unitPaise.length != quantities.length) {
+            throw new IllegalArgumentException("Prices and quantities differ in length");
+        }
+        int n = unitPaise.length;
+        long[] lineTotals = new long[n];
+        long subtotal = 0;
+        long tax = 0;
+        for (int i = 0; i < n; i++) {
+            if (unitPaise[i] < 0 || quantities[i] <= 0) {
+                throw new IllegalArgumentException("Invalid price or quantity on line " + (i + 1));
+            }
+            long line = Math.multiplyExact(unitPaise[i], quantities[i]);
+            lineTotals[i] = line;
+            subtotal = Math.addExact(subtotal, line);
+            tax = Math.addExact(tax, rules.taxInclusive()
+                    ? Money.inclusiveTax(line, rules.taxRateBps())
+                    : Money.exclusiveTax(line, rules.taxRateBps()));
+        }
+        long shipping = n == 0 || subtotal > rules.freeShippingAbovePaise() ? 0 : rules.shippingFeePaise();
+        long total = Math.addExact(Math.addExact(subtotal, shipping), rules.taxInclusive() ? 0 : tax);
+        return new PriceQuote(lineTotals, subtotal, tax, shipping, total, rules.taxInclusive(), rules.currency());
+    }
+}
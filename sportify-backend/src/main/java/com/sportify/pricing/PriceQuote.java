@@ -0,0 +1,24 @@
+package com.sportify.pricing;
+
+// Server-computed totals for a list of cart or order lines, all in paise.
+// When taxInclusive is set the tax is the GST already contained in the
+// line totals, so total = subtotal + shipping.
+public record PriceQuote(
+    long[] lineTotalsPaise,
+    long subtotalPaise,
+    long taxPaise,
+    long shippingPaise,
+    long totalPaise,
+    boolean taxInclusive,
+    String currency
+) {
+    // Quotes are shared through the cache, so callers get their own copy
+    @Override
+    public long[] lineTotalsPaise() {
+        return lineTotalsPaise.clone();
+    }
+
+    public double totalRupees() {
+        return Money.paiseToRupees(totalPaise);
+    }
+}
@@ -0,0 +1,128 @@
+package com.sportify.pricing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportify.catalog.CatalogSnapshot;
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// Prices carts and orders from the catalog. Quotes are cached by cart
+// fingerprint (product ids and quantities in line order); the cache belongs
+// to one catalog snapshot and is dropped wholesale when the catalog reloads,
+// so a cached quote can never carry a stale price.
+@Service
+public class PricingEngine {
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Value("${app.pricing.tax-rate-bps:1800}")
+    private int taxRateBps;
+
+    @Value("${app.pricing.tax-inclusive:true}")
+    private boolean taxInclusive;
+
+    @Value("${app.pricing.free-shipping-above-paise:500000}")
+    private long freeShippingAbovePaise;
+
+    @Value("${app.pricing.shipping-fee-paise:10000}")
+    private long shippingFeePaise;
+
+    @Value("${app.pricing.currency:INR}")
+    private String currency;
+
+    @Value("${app.pricing.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.pricing.cache.ttl:600000}")
+    private long cacheTtl;
+
+    private PricingRules rules;
+    private volatile SnapshotQuotes quotes;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        rules = new PricingRules(taxRateBps, taxInclusive, freeShippingAbovePaise, shippingFeePaise, currency);
+    }
+
+    // Throws RuntimeException for unknown products or non-positive quantities
+    public PriceQuote quote(String[] productIds, int[] quantities) {
+        CatalogSnapshot snapshot = catalog.snapshot();
+        Cache<String, PriceQuote> cache = cacheFor(snapshot);
+        String fingerprint = fingerprint(productIds, quantities);
+        PriceQuote cached = cache.getIfPresent(fingerprint);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        PriceQuote quote = price(snapshot, productIds, quantities);
+        cache.put(fingerprint, quote);
+        return quote;
+    }
+
+    public PricingRules getRules() {
+        return rules;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    private PriceQuote price(CatalogSnapshot snapshot, String[] productIds, int[] quantities) {
+        long[] unitPaise = new long[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            Product product = snapshot.byId(productIds[i]);
+            if (product == null) {
+                throw new RuntimeException("Unknown product: " + productIds[i]);
+            }
+            if (quantities[i] <= 0) {
+                throw new RuntimeException("Invalid quantity for " + product.name());
+            }
+            unitPaise[i] = Money.rupeesToPaise(product.price());
+        }
+        return PriceCalculator.price(unitPaise, quantities, rules);
+    }
+
+    private Cache<String, PriceQuote> cacheFor(CatalogSnapshot snapshot) {
+        SnapshotQuotes current = quotes;
+        if (current == null || current.snapshot() != snapshot) {
+            current = new SnapshotQuotes(snapshot, Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtl))
+                .build());
+            quotes = current;
+        }
+        return current.cache();
+    }
+
+    // Length-prefixed so no product id can make two different carts collide
+    static String fingerprint(String[] productIds, int[] quantities) {
+        if (productIds.length != quantities.length) {
+            throw new IllegalArgumentException("Product ids and quantities differ in length");
+        }
+        StringBuilder key = new StringBuilder(productIds.length * 24);
+        for (int i = 0; i < productIds.length; i++) {
+            String id = productIds[i] != null ? productIds[i] : "";
+            key.append(id.length()).append(':').append(id).append('x').append(quantities[i]).append(';');
+        }
+        return key.toString();
+    }
+
+    private record SnapshotQuotes(CatalogSnapshot snapshot, Cache<String, PriceQuote> cache) {
+    }
+}
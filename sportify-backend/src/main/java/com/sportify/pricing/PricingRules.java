@@ -0,0 +1,16 @@
+package com.sportify.pricing;
+
+// Tax and shipping policy applied on top of catalog prices
+public record PricingRules(
+    int taxRateBps,
+    boolean taxInclusive,
+    long freeShippingAbovePaise,
+    long shippingFeePaise,
+    String currency
+) {
+    public PricingRules {
+        if (taxRateBps < 0 || freeShippingAbovePaise < 0 || shippingFeePaise < 0) {
+            throw new IllegalArgumentException("Pricing rules must not be negative");
+        }
+    }
+}
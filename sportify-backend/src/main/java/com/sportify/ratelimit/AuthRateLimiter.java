@@ -0,0 +1,87 @@
+package com.sportify.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Buckets for /api/auth keyed by client IP and by email. Both maps are size
+// bounded, so a flood of distinct keys evicts cold buckets instead of
+// growing the heap; an evicted bucket simply starts full again.
+@Component
+public class AuthRateLimiter {
+
+    @Value("${app.rate-limit.ip.requests:60}")
+    private int ipRequests;
+
+    @Value("${app.rate-limit.ip.period:60000}")
+    private long ipPeriodMillis;
+
+    @Value("${app.rate-limit.email.requests:10}")
+    private int emailRequests;
+
+    @Value("${app.rate-limit.email.period:60000}")
+    private long emailPeriodMillis;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    // Clock for both the buckets and their expiry; tests swap in a fake one before init()
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<String, RateLimitBucket> ipBuckets;
+    private Cache<String, RateLimitBucket> emailBuckets;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        ipBuckets = buckets(ipPeriodMillis);
+        emailBuckets = buckets(emailPeriodMillis);
+    }
+
+    private Cache<String, RateLimitBucket> buckets(long periodMillis) {
+        // An idle bucket is full again after one period, so it can be dropped
+        return Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofMillis(periodMillis))
+            .ticker(ticker)
+            .build();
+    }
+
+    // Returns 0 when admitted, otherwise the millis the caller should wait
+    public long tryAcquire(String ip, String email) {
+        long now = ticker.read();
+        long wait = ipBuckets
+            .get(ip, k -> new RateLimitBucket(ipRequests, TimeUnit.MILLISECONDS.toNanos(ipPeriodMillis)))
+            .tryAcquire(now);
+        if (wait == 0 && email != null) {
+            wait = emailBuckets
+                .get(email.toLowerCase(Locale.ROOT),
+                    k -> new RateLimitBucket(emailRequests, TimeUnit.MILLISECONDS.toNanos(emailPeriodMillis)))
+                .tryAcquire(now);
+        }
+        if (wait == 0) {
+            admitted.increment();
+            return 0;
+        }
+        rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
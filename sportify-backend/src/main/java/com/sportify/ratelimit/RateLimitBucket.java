@@ -0,0 +1,33 @@
+package com.sportify.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in its GCRA form: the whole state is one "theoretical arrival
+// time", so admitting a request is a single CAS with no lock. A bucket of
+// `capacity` requests refills one token every period / capacity.
+public final class RateLimitBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public RateLimitBucket(int capacity, long periodNanos) {
+        this.emissionIntervalNanos = Math.max(1, periodNanos / capacity);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+    }
+
+    // Returns 0 when admitted, otherwise the nanos until a token is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+            long wait = base - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,14 +1,43 @@
 package com.sportify.repository;
 
 import com.sportify.entity.CartItem;
-import com.sportify.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface CartRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByUser(User user);
-    void deleteByUser(User user);
-}
\ No newline at end of file
+    List<CartItem> findByUserId(Long userId);
+    long countByUserId(Long userId);
+
+    @Transactional
+    void deleteByUserId(Long userId);
+
+    // One line per (user, product, size); repeat adds bump the quantity in place
+    @Transactional
+    @Modifying
+    @Query("update CartItem c set c.quantity = c.quantity + :quantity " +
+           "where c.user.id = :userId and c.productId = :productId and c.size = :size")
+    int incrementQuantity(@Param("userId") Long userId, @Param("productId") String productId,
+                          @Param("size") String size, @Param("quantity") int quantity);
+
+    // A null size targets every size of the product
+    @Transactional
+    @Modifying
+    @Query("update CartItem c set c.quantity = :quantity " +
+           "where c.user.id = :userId and c.productId = :productId and (:size is null or c.size = :size)")
+    int updateQuantity(@Param("userId") Long userId, @Param("productId") String productId,
+                       @Param("size") String size, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CartItem c " +
+           "where c.user.id = :userId and c.productId = :productId and (:size is null or c.size = :size)")
+    int deleteLine(@Param("userId") Long userId, @Param("productId") String productId,
+                   @Param("size") String size);
+}
@@ -0,0 +1,7 @@
+package com.sportify.repository;
+
+import com.sportify.entity.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
@@ -0,0 +1,56 @@
+package com.sportify.repository;
+
+import com.sportify.entity.EmailJob;
+import com.sportify.entity.EmailJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailJobRepository extends JpaRepository<EmailJob, Long> {
+
+    @Query("select j.id from EmailJob j where j.status = :status and j.nextAttemptAt <= :now order by j.id")
+    List<Long> findDueIds(@Param("status") EmailJobStatus status, @Param("now") LocalDateTime now, Pageable limit);
+
+    // Conditional update doubles as a claim: only one instance wins a given job
+    @Transactional
+    @Modifying
+    @Query("update EmailJob j set j.status = com.sportify.entity.EmailJobStatus.SENDING, j.claimedAt = :now, " +
+           "j.claimToken = :token where j.id = :id and j.status = com.sportify.entity.EmailJobStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("token") String token);
+
+    // Renews the claim when a worker picks the job off its queue, so only the
+    // send itself counts towards stale-after. 0 means the claim was released.
+    @Transactional
+    @Modifying
+    @Query("update EmailJob j set j.claimedAt = :now where j.id = :id and j.claimToken = :token " +
+           "and j.status = com.sportify.entity.EmailJobStatus.SENDING")
+    int renewClaim(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailJob j set j.status = com.sportify.entity.EmailJobStatus.PENDING, j.claimedAt = null, " +
+           "j.claimToken = null, j.attempts = :attempts, j.lastError = :lastError, j.nextAttemptAt = :nextAttemptAt " +
+           "where j.id = :id and j.claimToken = :token")
+    int reschedule(@Param("id") Long id, @Param("token") String token, @Param("attempts") int attempts,
+                   @Param("lastError") String lastError, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("delete from EmailJob j where j.id = :id and j.claimToken = :token")
+    int deleteClaimed(@Param("id") Long id, @Param("token") String token);
+
+    // Releases jobs whose worker died mid-send. Clearing the token voids the
+    // old claim, and the release counts as an attempt so a job that keeps
+    // killing its worker ends up dead-lettered.
+    @Transactional
+    @Modifying
+    @Query("update EmailJob j set j.status = com.sportify.entity.EmailJobStatus.PENDING, j.claimedAt = null, " +
+           "j.claimToken = null, j.attempts = j.attempts + 1 " +
+           "where j.status = com.sportify.entity.EmailJobStatus.SENDING and j.claimedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,34 @@
+package com.sportify.repository;
+
+import com.sportify.entity.InstanceLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface InstanceLeaseRepository extends JpaRepository<InstanceLease, String> {
+
+    // Renews the lease if this owner holds it, or takes it over once the
+    // holder has stopped renewing
+    @Transactional
+    @Modifying
+    @Query("update InstanceLease l set l.owner = :owner, l.renewedAt = :now " +
+           "where l.name = :name and (l.owner = :owner or l.renewedAt < :staleBefore)")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // A plain insert, so two instances racing for a new lease cannot both win
+    @Transactional
+    @Modifying
+    @Query(value = "insert into instance_leases (name, owner, renewed_at) values (:name, :owner, :now)",
+           nativeQuery = true)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from InstanceLease l where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,32 @@
+package com.sportify.repository;
+
+import com.sportify.entity.InventoryLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryLedgerRepository extends JpaRepository<InventoryLedgerEntry, Long> {
+
+    @Query("select e from InventoryLedgerEntry e where e.applied = false order by e.id")
+    List<InventoryLedgerEntry> findUnapplied(Pageable limit);
+
+    // Pending movements per SKU, added to inventory_stock when counters are loaded
+    @Query("select e.productId as productId, e.size as size, sum(e.delta) as delta " +
+           "from InventoryLedgerEntry e where e.applied = false group by e.productId, e.size")
+    List<PendingDeltaView> sumUnapplied();
+
+    @Modifying
+    @Query("update InventoryLedgerEntry e set e.applied = true where e.id in :ids")
+    int markApplied(@Param("ids") Collection<Long> ids);
+
+    interface PendingDeltaView {
+        String getProductId();
+        String getSize();
+        Long getDelta();
+    }
+}
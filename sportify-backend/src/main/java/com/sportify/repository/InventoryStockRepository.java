@@ -0,0 +1,10 @@
+package com.sportify.repository;
+
+import com.sportify.entity.InventoryStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface InventoryStockRepository extends JpaRepository<InventoryStock, Long> {
+    Optional<InventoryStock> findByProductIdAndSize(String productId, String size);
+}
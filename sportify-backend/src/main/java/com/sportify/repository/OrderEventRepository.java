@@ -0,0 +1,74 @@
+package com.sportify.repository;
+
+import com.sportify.entity.OrderEvent;
+import com.sportify.entity.OrderEventStatus;
+import com.sportify.entity.OrderStage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    @Query("select e.id from OrderEvent e where e.stage = :stage and e.status = :status " +
+           "and e.nextAttemptAt <= :now order by e.id")
+    List<Long> findDueIds(@Param("stage") OrderStage stage, @Param("status") OrderEventStatus status,
+                          @Param("now") LocalDateTime now, Pageable limit);
+
+    // Conditional update doubles as a claim: only one instance wins a given event
+    @Transactional
+    @Modifying
+    @Query("update OrderEvent e set e.status = com.sportify.entity.OrderEventStatus.PROCESSING, e.claimedAt = :now, " +
+           "e.claimToken = :token where e.id = :id and e.status = com.sportify.entity.OrderEventStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("token") String token);
+
+    // Renews the claim when a worker picks the event off its queue, so only the
+    // stage itself counts towards stale-after. 0 means the claim was released.
+    @Transactional
+    @Modifying
+    @Query("update OrderEvent e set e.claimedAt = :now where e.id = :id and e.claimToken = :token " +
+           "and e.status = com.sportify.entity.OrderEventStatus.PROCESSING")
+    int renewClaim(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update OrderEvent e set e.status = com.sportify.entity.OrderEventStatus.PENDING, e.claimedAt = null, " +
+           "e.claimToken = null, e.attempts = :attempts, e.lastError = :lastError, e.nextAttemptAt = :nextAttemptAt " +
+           "where e.id = :id and e.claimToken = :token")
+    int reschedule(@Param("id") Long id, @Param("token") String token, @Param("attempts") int attempts,
+                   @Param("lastError") String lastError, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OrderEvent e set e.status = com.sportify.entity.OrderEventStatus.FAILED, e.claimedAt = null, " +
+           "e.claimToken = null, e.attempts = :attempts, e.lastError = :lastError " +
+           "where e.id = :id and e.claimToken = :token")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("attempts") int attempts,
+                   @Param("lastError") String lastError);
+
+    // Joins the stage's transaction: the stage hands off to the next one only
+    // if it still owns the event
+    @Modifying
+    @Query("delete from OrderEvent e where e.id = :id and e.claimToken = :token")
+    int deleteClaimed(@Param("id") Long id, @Param("token") String token);
+
+    // Releases events whose worker died mid-stage. Clearing the token voids the
+    // old claim, and the release counts as an attempt so an event that keeps
+    // killing its worker ends up FAILED.
+    @Transactional
+    @Modifying
+    @Query("update OrderEvent e set e.status = com.sportify.entity.OrderEventStatus.PENDING, e.claimedAt = null, " +
+           "e.claimToken = null, e.attempts = e.attempts + 1 " +
+           "where e.status = com.sportify.entity.OrderEventStatus.PROCESSING and e.claimedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    boolean existsByOrderIdAndStageAndStatusIn(Long orderId, OrderStage stage, Collection<OrderEventStatus> statuses);
+
+    long countByStageAndStatus(OrderStage stage, OrderEventStatus status);
+}
@@ -0,0 +1,30 @@
+package com.sportify.repository;
+
+import com.sportify.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Items for a whole page of orders in one round-trip
+    @Query("select i.order.id as orderId, i.productId as productId, i.productName as productName, " +
+           "i.productImage as productImage, i.price as price, i.quantity as quantity, " +
+           "i.size as size, i.color as color " +
+           "from OrderItem i where i.order.id in :orderIds order by i.id")
+    List<OrderLineView> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    interface OrderLineView {
+        Long getOrderId();
+        String getProductId();
+        String getProductName();
+        String getProductImage();
+        Double getPrice();
+        Integer getQuantity();
+        String getSize();
+        String getColor();
+    }
+}
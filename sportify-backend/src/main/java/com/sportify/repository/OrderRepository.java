@@ -1,13 +1,68 @@
 package com.sportify.repository;
 
 import com.sportify.entity.Order;
-import com.sportify.entity.User;
+import com.sportify.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserOrderByCreatedAtDesc(User user);
     Optional<Order> findByOrderNumber(String orderNumber);
-}
\ No newline at end of file
+
+    // Conditional transition; 0 means the order was cancelled or already moved on
+    @Modifying
+    @Query("update Order o set o.status = :to where o.id = :id and o.status = :from")
+    int advanceStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    @Query("select o.orderNumber as orderNumber, o.totalAmount as totalAmount, u.email as email, u.name as name " +
+           "from Order o join o.user u where o.id = :id")
+    Optional<OrderContactView> findContactById(@Param("id") Long id);
+
+    String HISTORY_SELECT = "select o.id as id, o.orderNumber as orderNumber, o.totalAmount as totalAmount, " +
+            "o.status as status, o.createdAt as createdAt, o.shippingName as shippingName, " +
+            "o.shippingAddress as shippingAddress, o.shippingCity as shippingCity, " +
+            "o.shippingState as shippingState, o.shippingPin as shippingPin, o.shippingPhone as shippingPhone " +
+            "from Order o ";
+
+    // Keyset pagination over idx_orders_user_created; id breaks createdAt ties
+    @Query(HISTORY_SELECT +
+           "where o.user.id = :userId " +
+           "order by o.createdAt desc, o.id desc")
+    List<OrderHeadView> findHistoryFirstPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query(HISTORY_SELECT +
+           "where o.user.id = :userId " +
+           "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) " +
+           "order by o.createdAt desc, o.id desc")
+    List<OrderHeadView> findHistoryPageBefore(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    interface OrderHeadView {
+        Long getId();
+        String getOrderNumber();
+        Double getTotalAmount();
+        OrderStatus getStatus();
+        LocalDateTime getCreatedAt();
+        String getShippingName();
+        String getShippingAddress();
+        String getShippingCity();
+        String getShippingState();
+        String getShippingPin();
+        String getShippingPhone();
+    }
+
+    interface OrderContactView {
+        String getOrderNumber();
+        Double getTotalAmount();
+        String getEmail();
+        String getName();
+    }
+}
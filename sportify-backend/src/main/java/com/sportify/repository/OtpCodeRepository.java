@@ -0,0 +1,32 @@
+package com.sportify.repository;
+
+import com.sportify.entity.OtpCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface OtpCodeRepository extends JpaRepository<OtpCode, String> {
+
+    @Modifying
+    @Query("delete from OtpCode o where o.email = :email and o.code = :code and o.expiresAt > :now")
+    int deleteMatching(@Param("email") String email, @Param("code") String code, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update OtpCode o set o.attempts = o.attempts + 1 where o.email = :email and o.expiresAt > :now")
+    int recordFailedAttempt(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OtpCode o where o.email = :email and o.attempts >= :maxAttempts")
+    int deleteIfExhausted(@Param("email") String email, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("delete from OtpCode o where o.email = :email and o.expiresAt <= :now")
+    int deleteExpired(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OtpCode o where o.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
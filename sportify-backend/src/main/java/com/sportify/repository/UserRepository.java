@@ -2,11 +2,46 @@ package com.sportify.repository;
 
 import com.sportify.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByVerificationToken(String token);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Only users that ever revoked tokens; everyone else is implicitly at version 0
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from User u where u.tokenVersion > 0")
+    List<TokenVersionView> findRevokedTokenVersions();
+
+    @Query("select u.name from User u where u.email = :email")
+    Optional<String> findNameByEmail(@Param("email") String email);
+
+    // No-op for accounts that are already verified, so repeat sign-ins never write the row
+    @Modifying
+    @Query("update User u set u.emailVerified = true where u.email = :email and u.emailVerified = false")
+    int markEmailVerified(@Param("email") String email);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    interface TokenVersionView {
+        Long getId();
+        int getTokenVersion();
+    }
+}
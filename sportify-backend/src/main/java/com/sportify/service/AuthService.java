@@ -1,17 +1,25 @@
 package com.sportify.service;
 
+import com.sportify.email.EmailOutboxService;
 import com.sportify.entity.User;
+import com.sportify.logging.LogRedaction;
+import com.sportify.metrics.LatencyTimers;
 import com.sportify.model.LoginRequest;
 import com.sportify.model.LoginResponse;
 import com.sportify.model.SignupRequest;
+import com.sportify.otp.OtpStore;
 import com.sportify.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
 import java.util.Random;
 
 @Service
@@ -23,103 +31,103 @@ public class AuthService {
     private UserRepository userRepository;
     
     @Autowired
-    private SendGridEmailService emailService;
+    private EmailOutboxService emailOutbox;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
     @Autowired
     private JwtUtil jwtTokenProvider;
     
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
+    @Autowired
+    private OtpStore otpStore;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer loginLookupTimer;
+    
+    @PostConstruct
+    void init() {
+        loginLookupTimer = LatencyTimers.timer(meterRegistry, "sportify.user.lookup", "User row fetched by email",
+                "caller", "login");
+    }
+    
     // ===== SIGN UP FLOW =====
+    // The password is hashed before the transaction opens so no connection is
+    // held during BCrypt; the OTP email is queued in the same transaction as
+    // the user and sent by EmailDispatcher
     public void signup(SignupRequest request) throws Exception {
-        log.info("=== SIGNUP STARTED ===");
-        
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new Exception("Email already registered");
         }
         
+        String passwordHash = passwordHashing.encode(request.getPassword());
         String otpCode = generateOtpCode();
         
         User user = new User();
         user.setEmail(request.getEmail());
         user.setName(request.getName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
         user.setPhone(request.getPhone());
-        user.setOtpCode(otpCode);
-        user.setOtpExpiry(LocalDateTime.now().plusMinutes(10));
         user.setEmailVerified(false);
         
-        userRepository.save(user);
-        log.info("User created. OTP: " + otpCode);
-        
-        emailService.sendOtpEmail(request.getEmail(), otpCode, user.getName());
-        log.info("=== SIGNUP COMPLETED ===");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.save(user);
+            otpStore.issue(request.getEmail(), otpCode);
+            emailOutbox.enqueueOtpEmail(request.getEmail(), user.getName());
+        });
+        log.debug("Signup accepted for user {}", user.getId());
     }
     
     // ===== SIGN IN FLOW - STEP 1: Send OTP =====
+    @Transactional(rollbackFor = Exception.class)
     public void requestSignInOtp(String email) throws Exception {
-        log.info("=== SIGN IN - REQUEST OTP ===");
-        log.info("Email: " + email);
-        
-        User user = userRepository.findByEmail(email)
+        String name = userRepository.findNameByEmail(email)
             .orElseThrow(() -> new Exception("User not found"));
         
         String otpCode = generateOtpCode();
-        user.setOtpCode(otpCode);
-        user.setOtpExpiry(LocalDateTime.now().plusMinutes(10));
-        userRepository.save(user);
-        
-        log.info("Generated OTP: " + otpCode);
-        emailService.sendOtpEmail(email, otpCode, user.getName());
-        log.info("=== OTP SENT ===");
+        otpStore.issue(email, otpCode);
+        emailOutbox.enqueueOtpEmail(email, name);
+        if (log.isDebugEnabled()) {
+            log.debug("Sign-in OTP queued for {}", LogRedaction.email(email));
+        }
     }
     
     // ===== SIGN IN FLOW - STEP 2: Verify OTP =====
+    @Transactional
     public void verifySignInOtp(String email, String otpCode) throws Exception {
-        log.info("=== SIGN IN - VERIFY OTP ===");
-        log.info("Email: " + email);
-        log.info("OTP: " + otpCode);
-        
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new Exception("User not found"));
-        
-        if (user.getOtpCode() == null) {
-            throw new Exception("No OTP found. Request new one.");
-        }
-        
-        if (user.getOtpExpiry().isBefore(LocalDateTime.now())) {
-            throw new Exception("OTP expired. Request new one.");
-        }
-        
-        if (!user.getOtpCode().equals(otpCode)) {
-            throw new Exception("Invalid OTP. Try again.");
-        }
-        
-        user.setOtpCode(null);
-        user.setOtpExpiry(null);
-        user.setEmailVerified(true);
-        userRepository.save(user);
-        
-        log.info("=== OTP VERIFIED SUCCESSFULLY ===");
+        checkOtp(email, otpCode);
+        markEmailVerified(email);
     }
     
     // ===== TRADITIONAL LOGIN (Optional) =====
     public LoginResponse login(LoginRequest request) throws Exception {
-        log.info("=== TRADITIONAL LOGIN ===");
-        
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = loginLookupTimer.record(() -> userRepository.findByEmail(request.getEmail()))
             .orElseThrow(() -> new Exception("User not found"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashing.matches(request.getPassword(), user.getPassword())) {
             throw new Exception("Invalid password");
         }
         
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            String oldHash = user.getPassword();
+            passwordHashing.rehashInBackground(request.getPassword(),
+                newHash -> userRepository.replacePasswordHash(userId, oldHash, newHash));
+        }
+        
         if (!user.isEmailVerified()) {
             throw new Exception("Email not verified. Please verify first.");
         }
         
-        String token = jwtTokenProvider.generateToken(user.getEmail());
+        String token = jwtTokenProvider.generateToken(user);
         
         LoginResponse response = new LoginResponse();
         response.setToken(token);
@@ -127,38 +135,39 @@ public class AuthService {
         response.setEmail(user.getEmail());
         response.setName(user.getName());
         
-        log.info("=== LOGIN SUCCESSFUL ===");
+        log.debug("Login succeeded for user {}", user.getId());
         return response;
     }
     
     // ===== VERIFY SIGNUP OTP =====
+    @Transactional
     public void verifyOtp(String email, String otpCode) throws Exception {
-        log.info("=== VERIFY SIGNUP OTP ===");
-        
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new Exception("User not found"));
-        
-        if (user.getOtpCode() == null) {
-            throw new Exception("No OTP found. Request new one.");
-        }
-        
-        if (user.getOtpExpiry().isBefore(LocalDateTime.now())) {
-            throw new Exception("OTP expired. Request new one.");
+        checkOtp(email, otpCode);
+        markEmailVerified(email);
+    }
+    
+    // ===== HELPER METHODS =====
+    private void checkOtp(String email, String otpCode) throws Exception {
+        switch (otpStore.verify(email, otpCode)) {
+            case VERIFIED:
+                return;
+            case EXPIRED:
+                throw new Exception("OTP expired. Request new one.");
+            case MISMATCH:
+                throw new Exception("Invalid OTP. Try again.");
+            case TOO_MANY_ATTEMPTS:
+                throw new Exception("Too many attempts. Request new one.");
+            default:
+                throw new Exception("No OTP found. Request new one.");
         }
-        
-        if (!user.getOtpCode().equals(otpCode)) {
-            throw new Exception("Invalid OTP. Try again.");
+    }
+    
+    private void markEmailVerified(String email) {
+        if (userRepository.markEmailVerified(email) > 0) {
+            principalCache.invalidate(email);
         }
-        
-        user.setOtpCode(null);
-        user.setOtpExpiry(null);
-        user.setEmailVerified(true);
-        userRepository.save(user);
-        
-        log.info("=== SIGNUP OTP VERIFIED SUCCESSFULLY ===");
     }
     
-    // ===== HELPER METHODS =====
     private String generateOtpCode() {
         Random random = new Random();
         int otp = 1000 + random.nextInt(9000);
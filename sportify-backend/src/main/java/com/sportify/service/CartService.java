@@ -1,57 +1,106 @@
 package com.sportify.service;
 
+import com.sportify.cart.CartEngine;
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
 import com.sportify.entity.CartItem;
-import com.sportify.entity.User;
+import com.sportify.inventory.SkuKey;
+import com.sportify.metrics.LatencyTimers;
 import com.sportify.model.CartRequest;
-import com.sportify.repository.CartRepository;
-import com.sportify.repository.UserRepository;
+import com.sportify.model.UserPrincipal;
+import com.sportify.pricing.PriceQuote;
+import com.sportify.pricing.PricingEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartEngine cartEngine;
 
     @Autowired
-    private UserRepository userRepository;
+    private ProductCatalog catalog;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private PricingEngine pricingEngine;
 
-    public void addToCart(String token, CartRequest request) {
-        String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer addTimer;
+    private Timer getTimer;
+
+    @PostConstruct
+    void init() {
+        addTimer = LatencyTimers.timer(meterRegistry, "sportify.cart.add", "Add a line to the cart");
+        getTimer = LatencyTimers.timer(meterRegistry, "sportify.cart.get", "Read the cart lines");
+    }
+
+    // Name, image and price always come from the catalog, never from the client
+    public void addToCart(UserPrincipal principal, CartRequest request) {
+        addTimer.record(() -> doAddToCart(principal, request));
+    }
+
+    private void doAddToCart(UserPrincipal principal, CartRequest request) {
+        Product product = catalog.requirePricedProduct(request.getProductId(), request.getPrice());
+        request.setProductName(product.name());
+        request.setProductImage(product.primaryImage());
+        request.setPrice((double) product.price());
+        int quantity = request.getQuantity() != null && request.getQuantity() > 0 ? request.getQuantity() : 1;
+        cartEngine.add(principal.getId(), request, normalizeSize(request.getSize()), quantity);
+    }
+
+    public void updateQuantity(UserPrincipal principal, CartRequest request) {
+        String size = request.getSize() != null ? normalizeSize(request.getSize()) : null;
+        int quantity = request.getQuantity() != null ? request.getQuantity() : 0;
 
-        CartItem cartItem = new CartItem();
-        cartItem.setUser(user);
-        cartItem.setProductId(request.getProductId());
-        cartItem.setProductName(request.getProductName());
-        cartItem.setProductImage(request.getProductImage());
-        cartItem.setPrice(request.getPrice());
-        cartItem.setQuantity(request.getQuantity());
-        cartItem.setSize(request.getSize());
+        if (cartEngine.update(principal.getId(), request.getProductId(), size, quantity) == 0) {
+            throw new RuntimeException("Item not in cart");
+        }
+    }
 
-        cartRepository.save(cartItem);
+    public void removeItem(UserPrincipal principal, String productId, String size) {
+        String normalized = size != null ? normalizeSize(size) : null;
+        if (cartEngine.remove(principal.getId(), productId, normalized) == 0) {
+            throw new RuntimeException("Item not in cart");
+        }
     }
 
-    public List<CartItem> getCart(String token) {
-        String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public List<CartItem> getCart(UserPrincipal principal) {
+        return getTimer.record(() -> cartEngine.lines(principal.getId()));
+    }
 
-        return cartRepository.findByUser(user);
+    public PriceQuote quote(UserPrincipal principal) {
+        List<CartItem> lines = cartEngine.lines(principal.getId());
+        String[] productIds = new String[lines.size()];
+        int[] quantities = new int[lines.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = lines.get(i).getProductId();
+            quantities[i] = lines.get(i).getQuantity();
+        }
+        return pricingEngine.quote(productIds, quantities);
     }
 
-    public void clearCart(String token) {
-        String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public void clearCart(UserPrincipal principal) {
+        cartEngine.clear(principal.getId());
+    }
+
+    // Drops the lines that were just ordered; anything added to the cart
+    // since checkout started stays
+    public void removeOrderedLines(Long userId, Collection<SkuKey> ordered) {
+        for (SkuKey sku : ordered) {
+            cartEngine.remove(userId, sku.productId(), sku.size());
+        }
+    }
 
-        cartRepository.deleteByUser(user);
+    private String normalizeSize(String size) {
+        return size != null ? size.trim() : "";
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.sportify.service;
 
 import jakarta.mail.internet.MimeMessage;
+import com.sportify.logging.LogRedaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,10 +43,12 @@ public class EmailService {
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Verification email sent successfully to: " + toEmail);
+            if (log.isInfoEnabled()) {
+                log.info("Verification email sent to {}", LogRedaction.email(toEmail));
+            }
 
         } catch (Exception e) {
-            log.error("Failed to send verification email to " + toEmail + ": " + e.getMessage());
+            log.error("Failed to send verification email to {}: {}", LogRedaction.email(toEmail), e.getMessage());
             throw new RuntimeException("Email service error: " + e.getMessage());
         }
     }
@@ -70,28 +73,20 @@ public class EmailService {
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Welcome email sent to: " + toEmail);
+            if (log.isInfoEnabled()) {
+                log.info("Welcome email sent to {}", LogRedaction.email(toEmail));
+            }
 
         } catch (Exception e) {
-            log.error("Failed to send welcome email: " + e.getMessage());
+            log.error("Failed to send welcome email: {}", e.getMessage());
         }
     }
 
+    // For development: the code itself is never logged; use the stub email
+    // transport with app.email.stub.directory to read it locally
     public void sendOtpEmail(String toEmail, String otpCode, String userName) {
-        // For development: Print to console instead of sending email
-        System.out.println("\n");
-        System.out.println("═══════════════════════════════════════");
-        System.out.println("📧 OTP VERIFICATION EMAIL");
-        System.out.println("═══════════════════════════════════════");
-        System.out.println("TO: " + toEmail);
-        System.out.println("NAME: " + userName);
-        System.out.println("\n🔐 YOUR OTP CODE:");
-        System.out.println("╔═══════════════════╗");
-        System.out.println("║  " + otpCode + "       ║");
-        System.out.println("╚═══════════════════╝");
-        System.out.println("\nExpiracy: 10 minutes");
-        System.out.println("═══════════════════════════════════════\n");
-        
-        log.info("OTP sent to: " + toEmail);
+        if (log.isDebugEnabled()) {
+            log.debug("OTP email for {} not sent (development mode)", LogRedaction.email(toEmail));
+        }
     }
 }
\ No newline at end of file
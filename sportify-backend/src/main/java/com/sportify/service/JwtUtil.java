@@ -1,47 +1,168 @@
 package com.sportify.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sportify.entity.Role;
+import com.sportify.entity.User;
+import com.sportify.metrics.LatencyTimers;
+import com.sportify.model.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERIFIED = "verified";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
-    
+
     @Value("${jwt.expiration}")
     private Long expiration;
-    
-    public String generateToken(String email) {
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl:300000}")
+    private long cacheTtl;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Token -> claims that already passed signature and expiry checks
+    private Cache<String, Claims> verifiedTokens;
+
+    // Cache clock; tests swap in a fake one before init()
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Timer parseTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new TokenExpiry(TimeUnit.MILLISECONDS.toNanos(cacheTtl)))
+            .ticker(ticker)
+            .build();
+        parseTimer = LatencyTimers.timer(meterRegistry, "sportify.jwt.parse", "Token to claims, cache hits included");
+        verifyTimer = LatencyTimers.timer(meterRegistry, "sportify.jwt.verify", "Signature and expiry check on cache miss");
+    }
+
+    // Identity travels as signed claims so authenticated requests can be
+    // served without resolving the User entity
+    public String generateToken(User user) {
         return Jwts.builder()
-            .setSubject(email)
+            .setSubject(user.getEmail())
+            .claim(CLAIM_USER_ID, user.getId())
+            .claim(CLAIM_ROLE, user.getRole().name())
+            .claim(CLAIM_VERIFIED, user.isEmailVerified())
+            .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+            .signWith(signingKey)
             .compact();
     }
-    
+
+    // Verifies the token once and serves repeat lookups from the cache.
+    // Throws JwtException when the token is malformed, tampered or expired.
+    public Claims parseClaims(String token) {
+        long started = System.nanoTime();
+        try {
+            return verifiedTokens.get(token, this::verify);
+        } finally {
+            parseTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Claims verify(String token) {
+        long started = System.nanoTime();
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } finally {
+            verifyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
-    }
-    
+        return parseClaims(token).getSubject();
+    }
+
+    // Returns null for tokens issued before identity claims were added
+    public UserPrincipal extractPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        boolean verified = Boolean.TRUE.equals(claims.get(CLAIM_VERIFIED, Boolean.class));
+        return new UserPrincipal(userId, claims.getSubject(), Role.valueOf(role), verified);
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
-                .build()
-                .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // Cached claims never outlive the token's own exp claim
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+        private final long maxTtlNanos;
+
+        TokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return maxTtlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(exp.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(maxTtlNanos, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
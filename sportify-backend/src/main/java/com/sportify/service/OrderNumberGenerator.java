@@ -0,0 +1,57 @@
+package com.sportify.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style ids: 41 bits of milliseconds since EPOCH, 10 bits of node id
+// and a 12-bit per-millisecond counter. Time and counter share one AtomicLong
+// so generation is a single CAS with no locks and no database round-trip.
+// Ids are unique across instances as long as each one has its own node id.
+@Component
+public class OrderNumberGenerator {
+
+    static final long EPOCH = 1735689600000L; // 2025-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${app.order-number.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.order-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public String nextOrderNumber() {
+        return "SP" + nextId();
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            long prevMillis = prev >>> SEQUENCE_BITS;
+            if (now > prevMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock stepped back: keep counting from the
+                // last issued value. A full counter rolls into the next millisecond.
+                next = prev + 1;
+            }
+        } while (!state.compareAndSet(prev, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
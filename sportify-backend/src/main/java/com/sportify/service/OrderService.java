@@ -1,38 +1,110 @@
 package com.sportify.service;
 
+import com.sportify.catalog.Product;
+import com.sportify.catalog.ProductCatalog;
 import com.sportify.entity.Order;
 import com.sportify.entity.OrderItem;
-import com.sportify.entity.User;
+import com.sportify.inventory.InventoryService;
+import com.sportify.inventory.Reservation;
+import com.sportify.inventory.SkuKey;
+import com.sportify.metrics.LatencyTimers;
+import com.sportify.model.OrderHistoryPage;
+import com.sportify.model.OrderLineSummary;
 import com.sportify.model.OrderRequest;
+import com.sportify.model.OrderSummary;
+import com.sportify.model.UserPrincipal;
+import com.sportify.order.OrderPipeline;
+import com.sportify.pricing.PriceQuote;
+import com.sportify.pricing.PricingEngine;
+import com.sportify.repository.OrderItemRepository;
 import com.sportify.repository.OrderRepository;
 import com.sportify.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private OrderNumberGenerator orderNumberGenerator;
 
-    public Order createOrder(String token, OrderRequest request) {
-        String email = jwtUtil.extractEmail(token.substring(7)); // Remove "Bearer "
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private ProductCatalog catalog;
 
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OrderPipeline orderPipeline;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer createdTimer;
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void init() {
+        createdTimer = LatencyTimers.timer(meterRegistry, "sportify.order.create", "Checkout, request to commit",
+                "outcome", "created");
+        rejectedTimer = LatencyTimers.timer(meterRegistry, "sportify.order.create", "Checkout, request to commit",
+                "outcome", "rejected");
+    }
+
+    public Order createOrder(UserPrincipal principal, OrderRequest request) {
+        long started = System.nanoTime();
+        boolean created = false;
+        try {
+            Order order = placeOrder(principal, request);
+            created = true;
+            return order;
+        } finally {
+            (created ? createdTimer : rejectedTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Order placeOrder(UserPrincipal principal, OrderRequest request) {
         Order order = new Order();
-        order.setUser(user);
-        order.setOrderNumber("SP" + System.currentTimeMillis());
-        order.setTotalAmount(request.getTotalAmount());
+        order.setUser(userRepository.getReferenceById(principal.getId()));
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         order.setShippingName(request.getShippingAddress().getFullName());
         order.setShippingAddress(request.getShippingAddress().getAddressLine1() + (request.getShippingAddress().getAddressLine2() != null ? ", " + request.getShippingAddress().getAddressLine2() : ""));
         order.setShippingCity(request.getShippingAddress().getCity());
@@ -42,18 +114,152 @@ public class OrderService {
         order.setCreatedAt(LocalDateTime.now());
 
         for (OrderItem item : request.getItems()) {
+            Product product = catalog.requirePricedProduct(item.getProductId(), item.getPrice());
+            item.setProductName(product.name());
+            item.setPrice((double) product.price());
+            if (item.getProductImage() == null) {
+                item.setProductImage(product.primaryImage());
+            }
             item.setOrder(order);
         }
         order.setItems(request.getItems());
+        applyQuote(order, request.getItems());
+
+        // Stock is taken before the insert and handed back if the insert fails
+        Map<SkuKey, Integer> lines = stockLines(request.getItems());
+        Reservation reservation;
+        if (request.getReservationId() != null) {
+            reservation = inventoryService.claim(request.getReservationId(), principal.getId());
+            if (!reservation.lines().equals(lines)) {
+                inventoryService.release(reservation);
+                throw new RuntimeException("Order items do not match the reservation");
+            }
+        } else {
+            reservation = inventoryService.reserve(principal.getId(), lines);
+        }
+        Order saved;
+        try {
+            saved = new TransactionTemplate(transactionManager).execute(status -> {
+                Order inserted = orderRepository.save(order);
+                inventoryService.recordSale(reservation, inserted.getOrderNumber());
+                orderPipeline.submit(inserted);
+                return inserted;
+            });
+        } catch (RuntimeException e) {
+            inventoryService.release(reservation);
+            throw e;
+        }
 
-        return orderRepository.save(order);
+        // The order is committed; a cart that cannot be cleaned up must not
+        // turn it into an error the client would retry
+        try {
+            cartService.removeOrderedLines(principal.getId(), lines.keySet());
+        } catch (RuntimeException e) {
+            log.warn("Order {} placed but its lines could not be removed from the cart: {}",
+                    saved.getOrderNumber(), e.getMessage());
+        }
+        return saved;
+    }
+
+    // The client's totalAmount is ignored; totals are always recomputed from catalog prices
+    private void applyQuote(Order order, List<OrderItem> items) {
+        String[] productIds = new String[items.size()];
+        int[] quantities = new int[items.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            OrderItem item = items.get(i);
+            productIds[i] = item.getProductId();
+            quantities[i] = item.getQuantity() != null ? item.getQuantity() : 1;
+        }
+        PriceQuote quote = pricingEngine.quote(productIds, quantities);
+        order.setSubtotalPaise(quote.subtotalPaise());
+        order.setTaxPaise(quote.taxPaise());
+        order.setShippingPaise(quote.shippingPaise());
+        order.setTotalPaise(quote.totalPaise());
+        order.setTotalAmount(quote.totalRupees());
+    }
+
+    private static Map<SkuKey, Integer> stockLines(List<OrderItem> items) {
+        Map<SkuKey, Integer> lines = new HashMap<>();
+        for (OrderItem item : items) {
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 1;
+            if (quantity <= 0) {
+                throw new RuntimeException("Invalid quantity for " + item.getProductName());
+            }
+            lines.merge(SkuKey.of(item.getProductId(), item.getSize()), quantity, Integer::sum);
+        }
+        return lines;
     }
 
-    public List<Order> getUserOrders(String token) {
-        String email = jwtUtil.extractEmail(token.substring(7));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Two queries per page whatever the history size: order heads, then all their items
+    public OrderHistoryPage getOrderHistory(UserPrincipal principal, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // One extra row tells us whether another page exists
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<OrderRepository.OrderHeadView> heads;
+        if (cursor == null || cursor.isBlank()) {
+            heads = orderRepository.findHistoryFirstPage(principal.getId(), fetch);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            heads = orderRepository.findHistoryPageBefore(principal.getId(),
+                    position.createdAt(), position.id(), fetch);
+        }
+
+        boolean hasMore = heads.size() > pageSize;
+        if (hasMore) {
+            heads = heads.subList(0, pageSize);
+        }
+        if (heads.isEmpty()) {
+            return new OrderHistoryPage(List.of(), null);
+        }
 
-        return orderRepository.findByUserOrderByCreatedAtDesc(user);
+        List<Long> orderIds = new ArrayList<>(heads.size());
+        for (OrderRepository.OrderHeadView head : heads) {
+            orderIds.add(head.getId());
+        }
+        Map<Long, List<OrderLineSummary>> linesByOrder = new HashMap<>();
+        for (OrderItemRepository.OrderLineView line : orderItemRepository.findLinesByOrderIds(orderIds)) {
+            linesByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>())
+                    .add(new OrderLineSummary(line.getProductId(), line.getProductName(), line.getProductImage(),
+                            line.getPrice(), line.getQuantity(), line.getSize(), line.getColor()));
+        }
+
+        List<OrderSummary> orders = new ArrayList<>(heads.size());
+        for (OrderRepository.OrderHeadView head : heads) {
+            orders.add(new OrderSummary(head.getId(), head.getOrderNumber(), head.getTotalAmount(),
+                    head.getStatus(), head.getCreatedAt(), head.getShippingName(), head.getShippingAddress(),
+                    head.getShippingCity(), head.getShippingState(), head.getShippingPin(), head.getShippingPhone(),
+                    linesByOrder.getOrDefault(head.getId(), List.of())));
+        }
+
+        OrderRepository.OrderHeadView last = heads.get(heads.size() - 1);
+        String nextCursor = hasMore ? encodeCursor(last.getCreatedAt(), last.getId()) : null;
+        return new OrderHistoryPage(orders, nextCursor);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record CursorPosition(LocalDateTime createdAt, long id) {
+    }
+
+    // Anything that is not a cursor this service issued is rejected with one
+    // message, which the controller turns into a 400
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new CursorPosition(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
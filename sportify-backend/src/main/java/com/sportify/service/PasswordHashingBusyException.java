@@ -0,0 +1,9 @@
+package com.sportify.service;
+
+// Thrown when the hashing pool is saturated; callers should answer 503
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Server busy. Please try again shortly.");
+    }
+}
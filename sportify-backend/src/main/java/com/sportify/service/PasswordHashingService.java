@@ -0,0 +1,153 @@
+package com.sportify.service;
+
+import com.sportify.metrics.LatencyTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Runs BCrypt on a pool sized to the CPU instead of on request threads.
+// The pool has a short bounded queue: when it is full, callers are turned
+// away at once rather than piling up behind work that cannot finish in time.
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.password.threads:0}")
+    private int threads;
+
+    @Value("${app.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password.timeout:5000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+    private Timer queueWaitTimer;
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        hashTimer = LatencyTimers.timer(meterRegistry, "sportify.password.hash", "BCrypt encode or verify");
+        queueWaitTimer = LatencyTimers.timer(meterRegistry, "sportify.password.queue.wait",
+                "Time a hash spent queued for a hashing thread");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // True when the hash was made with a lower cost than the configured one
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Best effort: if the pool is busy the rehash is skipped and retried on a later login
+    public void rehashInBackground(CharSequence rawPassword, Consumer<String> onHashed) {
+        try {
+            submit(() -> {
+                onHashed.accept(passwordEncoder.encode(rawPassword));
+                return null;
+            });
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Skipped password rehash, hashing pool is busy");
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> work) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Timer getHashTimer() {
+        return hashTimer;
+    }
+
+    public Timer getQueueWaitTimer() {
+        return queueWaitTimer;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+}
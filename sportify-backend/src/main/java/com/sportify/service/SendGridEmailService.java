@@ -4,65 +4,71 @@ import com.sendgrid.*;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.sportify.email.EmailTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 
 @Service
-public class SendGridEmailService {
-
-    private static final Logger log = LoggerFactory.getLogger(SendGridEmailService.class);
+@ConditionalOnProperty(name = "app.email.transport", havingValue = "sendgrid", matchIfMissing = true)
+public class SendGridEmailService implements EmailTransport {
 
     @Value("${sendgrid.api.key}")
     private String sendGridApiKey;
 
-    public void sendOtpEmail(String toEmail, String otpCode, String userName) {
-        log.info("=== SENDING OTP VIA SENDGRID ===");
-        log.info("To: " + toEmail);
-        log.info("OTP: " + otpCode);
+    @Value("${app.email.http.max-connections:20}")
+    private int maxConnections;
+
+    // Connect, pool wait and read timeout. Keeps every send well inside
+    // app.email.stale-after, so a job is never released while still in flight.
+    @Value("${app.email.http.timeout:30000}")
+    private int timeoutMillis;
 
-        try {
-            SendGrid sg = new SendGrid(sendGridApiKey);
-            Request request = new Request();
+    // One client for all workers so TLS connections to SendGrid are reused
+    private CloseableHttpClient httpClient;
+    private SendGrid sendGrid;
 
-            Email from = new Email("devsportify7@gmail.com", "SPORTIFY");
-            Email to = new Email(toEmail);
-            Content content = new Content("text/html", getEmailHtml(otpCode, userName));
-            Mail mail = new Mail(from, "SPORTIFY Verification Code: " + otpCode, to, content);
+    @PostConstruct
+    void init() {
+        httpClient = HttpClients.custom()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build())
+            .build();
+        sendGrid = new SendGrid(sendGridApiKey, new Client(httpClient));
+    }
 
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
+    @PreDestroy
+    void close() throws IOException {
+        httpClient.close();
+    }
 
-            Response response = sg.api(request);
+    @Override
+    public void send(String toEmail, String subject, String htmlBody) throws IOException {
+        Email from = new Email("devsportify7@gmail.com", "SPORTIFY");
+        Email to = new Email(toEmail);
+        Content content = new Content("text/html", htmlBody);
+        Mail mail = new Mail(from, subject, to, content);
 
-            log.info("Status Code: " + response.getStatusCode());
-            log.info("=== EMAIL SENT SUCCESSFULLY ===");
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(mail.build());
 
-        } catch (IOException ex) {
-            log.error("Failed to send email: " + ex.getMessage());
-            throw new RuntimeException("Email send failed: " + ex.getMessage());
+        Response response = sendGrid.api(request);
+        if (response.getStatusCode() >= 300) {
+            throw new IOException("SendGrid returned " + response.getStatusCode());
         }
     }
-
-    private String getEmailHtml(String otpCode, String userName) {
-        return "<html>" +
-            "<body style='font-family: Arial; background-color: #f5f5f5; padding: 20px;'>" +
-            "<div style='max-width: 600px; margin: 0 auto; background-color: white; padding: 30px; border-radius: 8px;'>" +
-            "<h2 style='color: #000;'>Welcome to SPORTIFY, " + userName + "!</h2>" +
-            "<p>Your verification code is:</p>" +
-            "<div style='background-color: #000; color: white; padding: 20px; text-align: center; border-radius: 8px; margin: 20px 0;'>" +
-            "<h1 style='letter-spacing: 8px; margin: 0;'>" + otpCode + "</h1>" +
-            "</div>" +
-            "<p>This code expires in <strong>10 minutes</strong></p>" +
-            "<p>If you didn't request this code, please ignore this email.</p>" +
-            "<hr style='border: none; border-top: 1px solid #e5e5e5;'>" +
-            "<p style='font-size: 12px; color: #757575;'>© 2025 SPORTIFY. All rights reserved.</p>" +
-            "</div>" +
-            "</body>" +
-            "</html>";
-    }
-}
\ No newline at end of file
+}
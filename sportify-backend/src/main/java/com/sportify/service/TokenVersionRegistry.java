@@ -0,0 +1,56 @@
+package com.sportify.service;
+
+import com.sportify.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory view of users.token_version so revocation checks stay off the
+// request path. Only non-zero versions are held; other instances pick up a
+// revocation on their next refresh.
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-version.refresh-interval:30000}")
+    public void refresh() {
+        Map<Long, Integer> latest = new ConcurrentHashMap<>();
+        for (UserRepository.TokenVersionView view : userRepository.findRevokedTokenVersions()) {
+            latest.put(view.getId(), view.getTokenVersion());
+        }
+        // Keep local bumps that raced ahead of the snapshot
+        versions.forEach((id, version) -> latest.merge(id, version, Math::max));
+        versions = latest;
+        log.debug("Token version table refreshed: {} entries", latest.size());
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < versions.getOrDefault(userId, 0);
+    }
+
+    // Invalidates every token issued to the user so far
+    @Transactional
+    public void revokeAll(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        int current = userRepository.findTokenVersionById(userId).orElse(0);
+        versions.merge(userId, current, Math::max);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sportify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportify.entity.User;
+import com.sportify.metrics.LatencyTimers;
+import com.sportify.model.UserPrincipal;
+import com.sportify.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class UserPrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.principal-cache.ttl:300000}")
+    private long ttl;
+
+    private Cache<String, UserPrincipal> principals;
+    private Timer lookupTimer;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttl))
+            .build();
+        lookupTimer = LatencyTimers.timer(meterRegistry, "sportify.user.lookup", "User row fetched by email",
+                "caller", "principal-cache");
+    }
+
+    public UserPrincipal get(String email) {
+        return principals.get(email, this::load);
+    }
+
+    // Call after any write that changes id, role or verification state
+    public void invalidate(String email) {
+        principals.invalidate(email);
+    }
+
+    private UserPrincipal load(String email) {
+        User user = lookupTimer.record(() -> userRepository.findByEmail(email))
+            .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.isEmailVerified());
+    }
+}
@@ -1,6 +1,7 @@
 package com.sportify.service;
 
 import com.sportify.entity.User;
+import com.sportify.model.UserPrincipal;
 import com.sportify.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,22 +13,21 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private UserPrincipalCache principalCache;
 
-    public User getUserProfile(String token) {
-        String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        return userRepository.findByEmail(email)
+    public User getUserProfile(UserPrincipal principal) {
+        return userRepository.findById(principal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public void updateProfile(String token, String name, String phone) {
-        String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        User user = userRepository.findByEmail(email)
+    public void updateProfile(UserPrincipal principal, String name, String phone) {
+        User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (name != null) user.setName(name);
         if (phone != null) user.setPhone(phone);
 
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.sportify.cart;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CartJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<CartJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (CartJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    private CartJournal open() throws Exception {
+        CartJournal journal = new CartJournal();
+        ReflectionTestUtils.setField(journal, "journalDir", dir.toString());
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private static CartLine line(String productId, String size, int quantity) {
+        CartLine line = new CartLine(-1, productId, size, LocalDateTime.now());
+        line.productName = productId;
+        line.price = 100.0;
+        line.quantity = quantity;
+        return line;
+    }
+
+    private List<CartJournal.Entry> replay(CartJournal journal) {
+        List<CartJournal.Entry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+        return entries;
+    }
+
+    @Test
+    void replaySkipsTornTailOfPartlyWrittenJournal() throws Exception {
+        CartJournal journal = open();
+        journal.append(CartJournal.Entry.put(1L, line("nike-air-max-270", "UK 8", 1)));
+        journal.append(CartJournal.Entry.put(1L, line("nike-air-max-270", "UK 8", 1), 3));
+        journal.close();
+        opened.clear();
+        // A crash part-way through the next write
+        Files.writeString(dir.resolve("cart.journal"), "{\"op\":\"DEL\",\"userId\":1,\"produ",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<CartJournal.Entry> entries = replay(open());
+        assertEquals(2, entries.size());
+        assertEquals(CartJournal.Entry.PUT, entries.get(1).op());
+        assertEquals(3, entries.get(1).quantity());
+    }
+
+    @Test
+    void replayReadsSealedSegmentsInOrderBeforeActiveFile() throws Exception {
+        CartJournal journal = open();
+        journal.append(CartJournal.Entry.put(1L, line("nike-tee-calling-skate", "M", 1)));
+        journal.rotate();
+        journal.append(CartJournal.Entry.delete(1L, "nike-tee-calling-skate", "M"));
+        journal.rotate();
+        journal.append(CartJournal.Entry.clear(2L));
+        journal.close();
+        opened.clear();
+
+        List<CartJournal.Entry> entries = replay(open());
+        assertEquals(List.of(CartJournal.Entry.PUT, CartJournal.Entry.DEL, CartJournal.Entry.CLR),
+                entries.stream().map(CartJournal.Entry::op).toList());
+    }
+
+    @Test
+    void discardDropsSealedSegmentsButKeepsLaterAppends() throws Exception {
+        CartJournal journal = open();
+        journal.append(CartJournal.Entry.put(1L, line("nike-pegasus-premium", "UK 5", 1)));
+        journal.rotate();
+        // Appended while the flush for the sealed segment is running
+        journal.append(CartJournal.Entry.put(1L, line("nike-pegasus-premium", "UK 5", 1), 2));
+        journal.discardSegments();
+
+        List<CartJournal.Entry> entries = replay(journal);
+        assertEquals(1, entries.size());
+        assertEquals(2, entries.get(0).quantity());
+    }
+}
@@ -0,0 +1,271 @@
+package com.sportify.cart;
+
+import com.sportify.entity.CartItem;
+import com.sportify.model.CartRequest;
+import com.sportify.repository.CartRepository;
+import com.sportify.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindCartEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // What cart_items holds for each user, as far as the engine's reads are concerned
+    private final AtomicReference<List<CartItem>> rows = new AtomicReference<>(List.of());
+
+    private CartJournal journal;
+    private WriteBehindCartEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(cartRepository.findByUserId(anyLong())).thenAnswer(inv -> rows.get());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(startsWith("update"), anyList())).thenAnswer(inv -> {
+            int[] counts = new int[inv.<List<?>>getArgument(1).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        journal = openJournal();
+        engine = newEngine(journal);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    private CartJournal openJournal() throws Exception {
+        CartJournal journal = new CartJournal();
+        ReflectionTestUtils.setField(journal, "journalDir", dir.toString());
+        journal.open();
+        return journal;
+    }
+
+    private WriteBehindCartEngine newEngine(CartJournal journal) {
+        WriteBehindCartEngine engine = new WriteBehindCartEngine();
+        ReflectionTestUtils.setField(engine, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(engine, "userRepository", userRepository);
+        ReflectionTestUtils.setField(engine, "journal", journal);
+        ReflectionTestUtils.setField(engine, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(engine, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(engine, "maxLines", 100);
+        ReflectionTestUtils.setField(engine, "idleEvictionMillis", 1800000L);
+        engine.recover();
+        return engine;
+    }
+
+    private static CartRequest request(String productId) {
+        CartRequest request = new CartRequest();
+        request.setProductId(productId);
+        request.setProductName(productId);
+        request.setPrice(100.0);
+        return request;
+    }
+
+    private static CartItem row(long id, String productId, String size, int quantity) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProductId(productId);
+        item.setProductName(productId);
+        item.setPrice(100.0);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        item.setCreatedAt(LocalDateTime.now());
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> insertBatches(int calls) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(calls)).batchUpdate(startsWith("insert"), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static List<String> insertedProducts(List<Object[]> batch) {
+        return batch.stream().map(args -> args[0] + ":" + args[1]).sorted().toList();
+    }
+
+    @Test
+    void recoveryReplaysPartlyWrittenJournalAndFlushesIt() throws Exception {
+        journal.close();
+        Files.writeString(dir.resolve("cart.journal"), String.join("\n",
+                "{\"op\":\"PUT\",\"userId\":1,\"productId\":\"nike-air-max-270\",\"size\":\"UK 8\",\"quantity\":1,\"price\":100.0}",
+                "{\"op\":\"PUT\",\"userId\":1,\"productId\":\"nike-air-max-270\",\"size\":\"UK 8\",\"quantity\":2,\"price\":100.0}",
+                "{\"op\":\"PUT\",\"userId\":1,\"productId\":\"nike-tee-calling-skate\",\"size\":\"M\",\"quantity\":1,\"price\":50.0}",
+                // Torn final write from the crash
+                "{\"op\":\"CLR\",\"use"), StandardCharsets.UTF_8);
+
+        journal = openJournal();
+        engine = newEngine(journal);
+
+        List<CartItem> lines = engine.lines(1L);
+        assertEquals(2, lines.size());
+        assertEquals(2, lines.get(0).getQuantity());
+        List<List<Object[]>> batches = insertBatches(1);
+        assertEquals(List.of("1:nike-air-max-270", "1:nike-tee-calling-skate"), insertedProducts(batches.get(0)));
+
+        // The recovery flush committed, so nothing is replayed a second time
+        List<CartJournal.Entry> left = new ArrayList<>();
+        journal.replay(left::add);
+        assertTrue(left.isEmpty());
+    }
+
+    @Test
+    void recoverySkipsEntriesOfDeletedUsers() throws Exception {
+        journal.append(CartJournal.Entry.clear(7L));
+        journal.close();
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        journal = openJournal();
+        engine = newEngine(journal);
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("delete"), anyList());
+        verify(cartRepository, never()).findByUserId(7L);
+    }
+
+    @Test
+    void failedFlushKeepsJournalAndRewritesEverythingOnRetry() throws Exception {
+        engine.add(1L, request("nike-air-max-270"), "UK 8", 1);
+        engine.add(2L, request("nike-pegasus-premium"), "UK 5", 1);
+        // The delete batch goes through, then the connection drops before the inserts
+        engine.add(3L, request("nike-tee-calling-skate"), "M", 1);
+        engine.flush();
+        engine.remove(3L, "nike-tee-calling-skate", "M");
+        when(jdbcTemplate.batchUpdate(startsWith("insert"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(new int[] {1, 1, 1});
+        engine.add(1L, request("nike-tee-calling-skate"), "L", 1);
+        engine.flush();
+
+        // The journal still describes the lost batch, so a crash now would lose nothing
+        CartJournal reopened = openJournalCopy();
+        List<CartJournal.Entry> pending = new ArrayList<>();
+        reopened.replay(pending::add);
+        reopened.close();
+        assertEquals(2, pending.size());
+
+        // A mutation between the failure and the retry is written with the rest
+        engine.add(2L, request("nike-air-max-270"), "UK 9", 1);
+        engine.flush();
+
+        List<List<Object[]>> batches = insertBatches(3);
+        assertEquals(List.of("1:nike-tee-calling-skate"), insertedProducts(batches.get(1)));
+        assertEquals(List.of("1:nike-tee-calling-skate", "2:nike-air-max-270"), insertedProducts(batches.get(2)));
+        // The removal is retried too, even though its first delete was rolled back
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("delete"), anyList());
+
+        List<CartJournal.Entry> left = new ArrayList<>();
+        journal.replay(left::add);
+        assertTrue(left.isEmpty());
+    }
+
+    // Replays the live journal directory through a second reader
+    private CartJournal openJournalCopy() throws Exception {
+        Path copy = Files.createDirectory(dir.resolveSibling(dir.getFileName() + "-copy"));
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        CartJournal reader = new CartJournal();
+        ReflectionTestUtils.setField(reader, "journalDir", copy.toString());
+        reader.open();
+        return reader;
+    }
+
+    @Test
+    void loadDiscardsRowsReadBeforeAConcurrentEviction() throws Exception {
+        rows.set(List.of(row(10, "nike-air-max-270", "UK 8", 1)));
+        ReflectionTestUtils.setField(engine, "idleEvictionMillis", -60000L);
+
+        // A reader fetches the rows for an unloaded cart, then stalls before taking the stripe lock
+        AtomicBoolean stall = new AtomicBoolean(true);
+        CountDownLatch fetched = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        when(cartRepository.findByUserId(1L)).thenAnswer(inv -> {
+            List<CartItem> read = rows.get();
+            if (stall.compareAndSet(true, false)) {
+                fetched.countDown();
+                resume.await(5, TimeUnit.SECONDS);
+            }
+            return read;
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<CartItem>> reader = pool.submit(() -> engine.lines(1L));
+            assertTrue(fetched.await(5, TimeUnit.SECONDS));
+
+            // Meanwhile the cart is loaded, changed, flushed and evicted
+            assertEquals(1, engine.update(1L, "nike-air-max-270", "UK 8", 5));
+            engine.flush();
+            assertEquals(1L, ((AtomicLong) ReflectionTestUtils.getField(engine, "evictions")).get());
+            rows.set(List.of(row(10, "nike-air-max-270", "UK 8", 5)));
+            resume.countDown();
+
+            List<CartItem> lines = reader.get(5, TimeUnit.SECONDS);
+            assertEquals(1, lines.size());
+            assertEquals(5, lines.get(0).getQuantity());
+        } finally {
+            resume.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void dirtyCartsAreNotEvicted() {
+        ReflectionTestUtils.setField(engine, "idleEvictionMillis", -60000L);
+        when(jdbcTemplate.batchUpdate(startsWith("insert"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+        engine.add(1L, request("nike-air-max-270"), "UK 8", 2);
+        engine.flush();
+
+        // Still in memory: a reload from the (empty) table would lose the line
+        List<CartItem> lines = engine.lines(1L);
+        assertEquals(1, lines.size());
+        assertEquals(2, lines.get(0).getQuantity());
+    }
+}
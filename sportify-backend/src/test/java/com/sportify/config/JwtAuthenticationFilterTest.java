@@ -0,0 +1,58 @@
+package com.sportify.config;
+
+import com.sportify.service.JwtUtil;
+import com.sportify.service.TokenVersionRegistry;
+import com.sportify.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void legacyTokenForDeletedUserContinuesUnauthenticated() throws Exception {
+        Claims claims = new DefaultClaims();
+        claims.setSubject("gone@sportify.test");
+
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.parseClaims("legacy")).thenReturn(claims);
+        when(jwtUtil.extractPrincipal(any())).thenReturn(null);
+        UserPrincipalCache principalCache = mock(UserPrincipalCache.class);
+        when(principalCache.get("gone@sportify.test")).thenThrow(new UsernameNotFoundException("gone"));
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(filter, "tokenVersions", mock(TokenVersionRegistry.class));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer legacy");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNotNull(chain.getRequest(), "request must continue down the chain");
+        assertEquals(200, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
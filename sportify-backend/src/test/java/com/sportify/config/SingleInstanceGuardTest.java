@@ -0,0 +1,82 @@
+package com.sportify.config;
+
+import com.sportify.entity.InstanceLease;
+import com.sportify.repository.InstanceLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SingleInstanceGuardTest {
+
+    private final InstanceLeaseRepository repository = mock(InstanceLeaseRepository.class);
+    private SingleInstanceGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new SingleInstanceGuard();
+        ReflectionTestUtils.setField(guard, "leaseRepository", repository);
+        ReflectionTestUtils.setField(guard, "leaseTtlMillis", 0L);
+    }
+
+    @Test
+    void firstInstanceCreatesTheLease() {
+        when(repository.create(anyString(), anyString(), any())).thenReturn(1);
+        guard.require("app.otp.store=memory");
+        guard.require("inventory");
+
+        // Later callers share the lease already held
+        verify(repository, times(1)).create(anyString(), anyString(), any());
+        guard.release();
+        verify(repository).release(eq("in-memory-state"), anyString());
+    }
+
+    @Test
+    void liveLeaseOfAnotherInstanceFailsStartup() {
+        InstanceLease lease = new InstanceLease();
+        lease.setName("in-memory-state");
+        lease.setOwner("4242@other-host");
+        lease.setRenewedAt(LocalDateTime.now());
+        when(repository.existsById("in-memory-state")).thenReturn(true);
+        when(repository.findById("in-memory-state")).thenReturn(Optional.of(lease));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> guard.require("app.otp.store=memory"));
+        assertTrue(e.getMessage().contains("app.otp.store=memory"));
+        assertTrue(e.getMessage().contains("4242@other-host"));
+        verify(repository, never()).create(anyString(), anyString(), any());
+
+        // Nothing held, so nothing is renewed or released
+        guard.renew();
+        guard.release();
+        verify(repository, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void losingTheCreateRaceFailsStartup() {
+        when(repository.create(anyString(), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        assertThrows(IllegalStateException.class, () -> guard.require("app.otp.store=memory"));
+    }
+
+    @Test
+    void staleLeaseIsTakenOver() {
+        when(repository.claim(eq("in-memory-state"), anyString(), any(), any())).thenReturn(1);
+        guard.require("app.otp.store=memory");
+        verify(repository, never()).create(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,168 @@
+package com.sportify.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportify.model.MessageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("productId", "nike-air-max-270", "quantity", 1);
+
+    private IdempotencyService service;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(service, "maxKeys", 1_000L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMillis", 10_000L);
+        service.init();
+    }
+
+    private ResponseEntity<?> execute(String key, Object request, ResponseEntity<?> response) {
+        return service.execute(1L, "cart.add", key, request, () -> {
+            runs.incrementAndGet();
+            return response;
+        });
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceAndShareTheResponse() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = pool.submit(() -> service.execute(1L, "cart.add", "k", REQUEST, () -> {
+                runs.incrementAndGet();
+                firstRunning.countDown();
+                await(release);
+                return ResponseEntity.ok(new MessageResponse("added"));
+            }));
+            assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> duplicate = pool.submit(() -> execute("k", REQUEST, ResponseEntity.ok("again")));
+            // The duplicate must be waiting on the first request, not running
+            Thread.sleep(200);
+            assertEquals(1, runs.get());
+            release.countDown();
+
+            ResponseEntity<?> original = first.get(5, TimeUnit.SECONDS);
+            ResponseEntity<?> replayed = duplicate.get(5, TimeUnit.SECONDS);
+            assertEquals(1, runs.get());
+            assertEquals(200, replayed.getStatusCode().value());
+            assertEquals(original.getBody(), replayed.getBody());
+            assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertNull(original.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void laterRetryGetsStoredResponseWithoutRunning() {
+        execute("k", REQUEST, ResponseEntity.ok("first"));
+        ResponseEntity<?> retry = execute("k", REQUEST, ResponseEntity.ok("second"));
+        assertEquals(1, runs.get());
+        assertEquals("first", retry.getBody());
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsUnprocessable() {
+        execute("k", REQUEST, ResponseEntity.ok("first"));
+        ResponseEntity<?> response = execute("k", Map.of("productId", "other", "quantity", 2), ResponseEntity.ok("x"));
+        assertEquals(422, response.getStatusCode().value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedFirstAttemptIsRetriedForReal() {
+        ResponseEntity<?> failed = execute("k", REQUEST, ResponseEntity.badRequest().body(new MessageResponse("busy")));
+        assertEquals(400, failed.getStatusCode().value());
+
+        ResponseEntity<?> retry = execute("k", REQUEST, ResponseEntity.ok("added"));
+        assertEquals(2, runs.get());
+        assertEquals(200, retry.getStatusCode().value());
+        assertEquals("added", retry.getBody());
+    }
+
+    @Test
+    void serverErrorAndExceptionAreNotStored() {
+        execute("k", REQUEST, ResponseEntity.internalServerError().build());
+        assertThrows(IllegalStateException.class, () -> service.execute(1L, "cart.add", "k", REQUEST, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        ResponseEntity<?> retry = execute("k", REQUEST, ResponseEntity.ok("added"));
+        assertEquals(3, runs.get());
+        assertEquals(200, retry.getStatusCode().value());
+    }
+
+    @Test
+    void duplicateGivesUpAfterWaitTimeout() throws Exception {
+        ReflectionTestUtils.setField(service, "waitTimeoutMillis", 100L);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> service.execute(1L, "cart.add", "k", REQUEST, () -> {
+                firstRunning.countDown();
+                await(release);
+                return ResponseEntity.ok("added");
+            }));
+            assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+            ResponseEntity<?> duplicate = execute("k", REQUEST, ResponseEntity.ok("again"));
+            assertEquals(409, duplicate.getStatusCode().value());
+            assertEquals(0, runs.get());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void keysAreScopedPerUserAndOperation() {
+        execute("k", REQUEST, ResponseEntity.ok("first"));
+        service.execute(2L, "cart.add", "k", REQUEST, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("other user");
+        });
+        service.execute(1L, "orders.create", "k", REQUEST, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("other operation");
+        });
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void blankOrOversizedKeyIsRejected() {
+        assertEquals(400, execute(" ", REQUEST, ResponseEntity.ok("x")).getStatusCode().value());
+        assertEquals(400, execute("k".repeat(256), REQUEST, ResponseEntity.ok("x")).getStatusCode().value());
+        assertEquals(0, runs.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.sportify.inventory;
+
+import com.sportify.catalog.ProductCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class InventoryHoldQuotaTest {
+
+    private static final SkuKey SHOE = SkuKey.of("nike-air-max-270", "UK 8");
+    private static final SkuKey TEE = SkuKey.of("nike-tee-calling-skate", "M");
+
+    private InventoryService service;
+    private StockCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        service = new InventoryService();
+        ReflectionTestUtils.setField(service, "catalog", mock(ProductCatalog.class));
+        ReflectionTestUtils.setField(service, "reservationTtlMillis", 600000L);
+        ReflectionTestUtils.setField(service, "maxHoldsPerUser", 3);
+        ReflectionTestUtils.setField(service, "maxHeldUnitsPerUser", 20);
+        counters = (StockCounters) ReflectionTestUtils.getField(service, "counters");
+        counters.set(SHOE, 1000);
+        counters.set(TEE, 5);
+    }
+
+    @Test
+    void openHoldsPerUserAreCapped() {
+        Reservation first = service.hold(1L, Map.of(SHOE, 1));
+        service.hold(1L, Map.of(SHOE, 1));
+        service.hold(1L, Map.of(SHOE, 1));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.hold(1L, Map.of(SHOE, 1)));
+        assertTrue(e.getMessage().contains("3 open reservations"));
+        assertEquals(997, counters.available(SHOE));
+        // Other users are unaffected
+        service.hold(2L, Map.of(SHOE, 1));
+
+        assertTrue(service.cancel(first.id(), 1L));
+        service.hold(1L, Map.of(SHOE, 1));
+    }
+
+    @Test
+    void heldUnitsPerUserAreCappedAcrossHolds() {
+        service.hold(1L, Map.of(SHOE, 15));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.hold(1L, Map.of(SHOE, 4, TEE, 2)));
+        assertEquals("Reservations are limited to 20 units per customer", e.getMessage());
+        assertEquals(985, counters.available(SHOE));
+        service.hold(1L, Map.of(SHOE, 3, TEE, 2));
+    }
+
+    @Test
+    void holdThatFindsNoStockDoesNotUseQuota() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(InsufficientStockException.class, () -> service.hold(1L, Map.of(TEE, 6)));
+        }
+        service.hold(1L, Map.of(TEE, 5));
+        service.hold(1L, Map.of(SHOE, 15));
+    }
+
+    @Test
+    void claimedAndExpiredHoldsGiveTheirQuotaBack() {
+        ReflectionTestUtils.setField(service, "reservationTtlMillis", -1L);
+        service.hold(1L, Map.of(SHOE, 10));
+        service.hold(1L, Map.of(SHOE, 10));
+        service.releaseExpired();
+        assertEquals(1000, counters.available(SHOE));
+
+        ReflectionTestUtils.setField(service, "reservationTtlMillis", 600000L);
+        Reservation held = service.hold(1L, Map.of(SHOE, 20));
+        service.claim(held.id(), 1L);
+        // Claimed units are the order's now; the quota is free again
+        service.hold(1L, Map.of(SHOE, 20));
+        assertEquals(960, counters.available(SHOE));
+    }
+
+    @Test
+    void reservationsAtCheckoutAreNotCapped() {
+        service.reserve(1L, Map.of(SHOE, 50));
+        service.hold(1L, Map.of(SHOE, 20));
+    }
+}
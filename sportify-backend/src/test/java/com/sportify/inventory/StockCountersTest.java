@@ -0,0 +1,75 @@
+package com.sportify.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StockCountersTest {
+
+    private static final int THREADS = 2000;
+    private static final SkuKey HOT = SkuKey.of("hot", "UK 8");
+    private static final SkuKey OTHER = SkuKey.of("other", "");
+
+    @Test
+    void hotSkuNeverOversells() throws Exception {
+        StockCounters counters = new StockCounters();
+        counters.set(HOT, 500);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                futures[t] = pool.submit(() -> {
+                    start.await();
+                    if (counters.tryTake(Map.of(HOT, 1)) == null) {
+                        sold.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(500, sold.get());
+        assertEquals(0, counters.available(HOT));
+    }
+
+    @Test
+    void multiLineTakeIsAllOrNothing() {
+        StockCounters counters = new StockCounters();
+        counters.set(HOT, 5);
+        counters.set(OTHER, 1);
+
+        assertEquals(OTHER, counters.tryTake(Map.of(HOT, 2, OTHER, 2)));
+        assertEquals(5, counters.available(HOT));
+        assertEquals(1, counters.available(OTHER));
+
+        assertNull(counters.tryTake(Map.of(HOT, 2, OTHER, 1)));
+        assertEquals(3, counters.available(HOT));
+        assertEquals(0, counters.available(OTHER));
+
+        counters.giveBack(Map.of(HOT, 2, OTHER, 1));
+        assertEquals(5, counters.available(HOT));
+        assertEquals(1, counters.available(OTHER));
+    }
+
+    @Test
+    void unknownSkuIsOutOfStock() {
+        StockCounters counters = new StockCounters();
+        assertEquals(HOT, counters.tryTake(Map.of(HOT, 1)));
+        assertEquals(0, counters.available(HOT));
+    }
+}
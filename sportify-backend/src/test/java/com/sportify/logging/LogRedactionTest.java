@@ -0,0 +1,29 @@
+package com.sportify.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LogRedactionTest {
+
+    @Test
+    void masksEmailsKeepingFirstCharacterAndDomain() {
+        assertEquals("j***@example.com", LogRedaction.email("jane.doe@example.com"));
+        assertEquals("Sent to j***@example.com and b***@x.org",
+                LogRedaction.mask("Sent to jane.doe@example.com and bob@x.org"));
+    }
+
+    @Test
+    void masksOtpLikeCodes() {
+        assertEquals("User created. OTP: ******", LogRedaction.mask("User created. OTP: 482913"));
+        assertEquals("Verification code ******", LogRedaction.mask("Verification code 4829"));
+    }
+
+    @Test
+    void leavesOrdinaryMessagesUntouched() {
+        String message = "Loaded 120 products from classpath:catalog/products.json";
+        assertSame(message, LogRedaction.mask(message));
+        assertEquals("Order 1234567 stage SHIP failed", LogRedaction.mask("Order 1234567 stage SHIP failed"));
+    }
+}
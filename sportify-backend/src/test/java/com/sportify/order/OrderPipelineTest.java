@@ -0,0 +1,130 @@
+package com.sportify.order;
+
+import com.sportify.controller.OrderController;
+import com.sportify.entity.Order;
+import com.sportify.entity.OrderEvent;
+import com.sportify.entity.OrderEventStatus;
+import com.sportify.entity.OrderStage;
+import com.sportify.entity.OrderStatus;
+import com.sportify.entity.User;
+import com.sportify.model.MessageResponse;
+import com.sportify.repository.OrderEventRepository;
+import com.sportify.repository.OrderRepository;
+import com.sportify.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "app.cart.write-behind.journal-dir=target/test-cart-journal",
+    // Tests must never reach SendGrid
+    "app.email.transport=stub",
+    // Keep the pipeline away from the orders under test
+    "app.orders.pipeline.poll-interval=3600000"
+})
+class OrderPipelineTest {
+
+    private static final List<OrderEventStatus> QUEUED = List.of(OrderEventStatus.PENDING, OrderEventStatus.PROCESSING);
+
+    @Autowired
+    private OrderPipeline orderPipeline;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Order order;
+
+    @BeforeEach
+    void createOrder() {
+        User user = new User();
+        user.setEmail("pipeline-" + System.nanoTime() + "@sportify.test");
+        user.setName("Pipeline");
+        user.setPassword("x");
+        user = userRepository.save(user);
+        order = new Order();
+        order.setUser(user);
+        order.setOrderNumber("PIPE-" + System.nanoTime());
+        order.setStatus(OrderStatus.CONFIRMED);
+        order = orderRepository.save(order);
+    }
+
+    @Test
+    void workerWhoseClaimWasReleasedCannotTouchTheEvent() {
+        OrderEvent event = orderEventRepository.save(
+                new OrderEvent(order.getId(), order.getUser().getId(), OrderStage.SHIP, LocalDateTime.now().plusDays(1)));
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, orderEventRepository.claim(event.getId(), now, "stale"));
+        assertEquals(1, orderEventRepository.releaseStale(now.plusSeconds(1)));
+        assertEquals(1, orderEventRepository.claim(event.getId(), now, "current"));
+
+        assertEquals(0, orderEventRepository.renewClaim(event.getId(), "stale", now));
+        assertEquals(0, orderEventRepository.reschedule(event.getId(), "stale", 1, "late", now));
+        assertEquals(0, orderEventRepository.markFailed(event.getId(), "stale", 5, "late"));
+        assertEquals(0, (int) new TransactionTemplate(transactionManager).execute(
+                status -> orderEventRepository.deleteClaimed(event.getId(), "stale")));
+
+        OrderEvent current = orderEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(OrderEventStatus.PROCESSING, current.getStatus());
+        assertEquals("current", current.getClaimToken());
+        // The release counted as an attempt
+        assertEquals(1, current.getAttempts());
+        assertEquals(1, orderEventRepository.reschedule(event.getId(), "current", 2, "retry", now));
+        orderEventRepository.deleteById(event.getId());
+    }
+
+    @Test
+    void fulfilmentQueuesShipAndNothingIsScheduledAfterIt() throws Exception {
+        ResponseEntity<?> response = orderController.ship(order.getOrderNumber());
+        assertEquals(202, response.getStatusCode().value());
+        assertTrue(orderEventRepository.existsByOrderIdAndStageAndStatusIn(order.getId(), OrderStage.SHIP, QUEUED));
+
+        ResponseEntity<?> duplicate = orderController.ship(order.getOrderNumber());
+        assertEquals(400, duplicate.getStatusCode().value());
+        assertInstanceOf(MessageResponse.class, duplicate.getBody());
+
+        orderPipeline.poll();
+        OrderStatus status = order.getStatus();
+        for (int i = 0; i < 100 && status != OrderStatus.SHIPPED; i++) {
+            Thread.sleep(100);
+            status = orderRepository.findById(order.getId()).orElseThrow().getStatus();
+        }
+        assertEquals(OrderStatus.SHIPPED, status);
+        // auto-fulfil is off, so delivery waits for its own request
+        assertFalse(orderEventRepository.existsByOrderIdAndStageAndStatusIn(order.getId(), OrderStage.DELIVER, QUEUED));
+        assertEquals(202, orderController.deliver(order.getOrderNumber()).getStatusCode().value());
+    }
+
+    @Test
+    void fulfilmentRejectsOrdersNotAtTheStagesStartingStatus() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> orderPipeline.fulfil(order.getOrderNumber(), OrderStage.DELIVER));
+        assertEquals("Order " + order.getOrderNumber() + " is CONFIRMED, not SHIPPED", e.getMessage());
+        assertEquals(400, orderController.ship("NO-SUCH-ORDER").getStatusCode().value());
+        assertThrows(IllegalArgumentException.class, () -> orderPipeline.fulfil(order.getOrderNumber(), OrderStage.CONFIRM));
+    }
+}
@@ -0,0 +1,141 @@
+package com.sportify.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Property checks over seeded random carts: the fixed-point results must
+// agree exactly with a BigDecimal reference and keep their invariants.
+class PriceCalculatorTest {
+
+    private static final int TRIALS = 5000;
+    private static final PricingRules INCLUSIVE = new PricingRules(1800, true, 500_000, 10_000, "INR");
+    private static final PricingRules EXCLUSIVE = new PricingRules(1250, false, 500_000, 10_000, "INR");
+
+    @Test
+    void matchesBigDecimalReference() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] prices = randomPrices(random);
+            int[] quantities = randomQuantities(random, prices.length);
+            for (PricingRules rules : new PricingRules[] {INCLUSIVE, EXCLUSIVE}) {
+                PriceQuote quote = PriceCalculator.price(prices, quantities, rules);
+
+                BigDecimal subtotal = BigDecimal.ZERO;
+                BigDecimal tax = BigDecimal.ZERO;
+                BigDecimal rate = BigDecimal.valueOf(rules.taxRateBps());
+                for (int i = 0; i < prices.length; i++) {
+                    BigDecimal line = BigDecimal.valueOf(prices[i]).multiply(BigDecimal.valueOf(quantities[i]));
+                    subtotal = subtotal.add(line);
+                    BigDecimal divisor = rules.taxInclusive()
+                            ? BigDecimal.valueOf(Money.BASIS_POINTS).add(rate)
+                            : BigDecimal.valueOf(Money.BASIS_POINTS);
+                    tax = tax.add(line.multiply(rate).divide(divisor, 0, RoundingMode.HALF_UP));
+                }
+                assertEquals(subtotal.longValueExact(), quote.subtotalPaise());
+                assertEquals(tax.longValueExact(), quote.taxPaise());
+            }
+        }
+    }
+
+    @Test
+    void totalsAreConsistent() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] prices = randomPrices(random);
+            int[] quantities = randomQuantities(random, prices.length);
+            PricingRules rules = random.nextBoolean() ? INCLUSIVE : EXCLUSIVE;
+            PriceQuote quote = PriceCalculator.price(prices, quantities, rules);
+
+            long sum = 0;
+            for (long line : quote.lineTotalsPaise()) {
+                sum += line;
+            }
+            assertEquals(sum, quote.subtotalPaise());
+            assertTrue(quote.taxPaise() >= 0);
+            if (rules.taxInclusive()) {
+                assertTrue(quote.taxPaise() <= quote.subtotalPaise());
+                assertEquals(quote.subtotalPaise() + quote.shippingPaise(), quote.totalPaise());
+            } else {
+                assertEquals(quote.subtotalPaise() + quote.taxPaise() + quote.shippingPaise(), quote.totalPaise());
+            }
+            long expectedShipping = prices.length == 0 || quote.subtotalPaise() > rules.freeShippingAbovePaise()
+                    ? 0 : rules.shippingFeePaise();
+            assertEquals(expectedShipping, quote.shippingPaise());
+        }
+    }
+
+    @Test
+    void lineOrderDoesNotChangeTotals() {
+        Random random = new Random(99);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] prices = randomPrices(random);
+            int[] quantities = randomQuantities(random, prices.length);
+            PriceQuote quote = PriceCalculator.price(prices, quantities, INCLUSIVE);
+
+            long[] shuffledPrices = prices.clone();
+            int[] shuffledQuantities = quantities.clone();
+            for (int i = prices.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long p = shuffledPrices[i];
+                shuffledPrices[i] = shuffledPrices[j];
+                shuffledPrices[j] = p;
+                int q = shuffledQuantities[i];
+                shuffledQuantities[i] = shuffledQuantities[j];
+                shuffledQuantities[j] = q;
+            }
+            PriceQuote shuffled = PriceCalculator.price(shuffledPrices, shuffledQuantities, INCLUSIVE);
+            assertEquals(quote.subtotalPaise(), shuffled.subtotalPaise());
+            assertEquals(quote.taxPaise(), shuffled.taxPaise());
+            assertEquals(quote.totalPaise(), shuffled.totalPaise());
+        }
+    }
+
+    @Test
+    void overflowIsRejectedNotWrapped() {
+        assertThrows(ArithmeticException.class,
+                () -> PriceCalculator.price(new long[] {Long.MAX_VALUE / 2}, new int[] {3}, INCLUSIVE));
+        assertThrows(IllegalArgumentException.class,
+                () -> PriceCalculator.price(new long[] {100}, new int[] {0}, INCLUSIVE));
+    }
+
+    @Test
+    void quotedLinesCannotBeModifiedThroughTheAccessor() {
+        PriceQuote quote = PriceCalculator.price(new long[] {100, 200}, new int[] {1, 2}, INCLUSIVE);
+        quote.lineTotalsPaise()[0] = 0;
+        assertArrayEquals(new long[] {100, 400}, quote.lineTotalsPaise());
+    }
+
+    @Test
+    void fingerprintsDoNotCollideAcrossSeparators() {
+        assertNotEquals(PricingEngine.fingerprint(new String[] {"a;1x2"}, new int[] {1}),
+                PricingEngine.fingerprint(new String[] {"a", "2"}, new int[] {1, 1}));
+        assertEquals(PricingEngine.fingerprint(new String[] {"a", "b"}, new int[] {1, 2}),
+                PricingEngine.fingerprint(new String[] {"a", "b"}, new int[] {1, 2}));
+    }
+
+    private static long[] randomPrices(Random random) {
+        long[] prices = new long[random.nextInt(101)];
+        for (int i = 0; i < prices.length; i++) {
+            // Up to ten lakh rupees, often ending in odd paise to exercise rounding
+            prices[i] = random.nextInt(100_000_000);
+        }
+        return prices;
+    }
+
+    private static int[] randomQuantities(Random random, int n) {
+        int[] quantities = new int[n];
+        for (int i = 0; i < n; i++) {
+            quantities[i] = 1 + random.nextInt(random.nextBoolean() ? 5 : 1000);
+        }
+        return quantities;
+    }
+}
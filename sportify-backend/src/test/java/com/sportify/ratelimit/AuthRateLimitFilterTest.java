@@ -0,0 +1,206 @@
+package com.sportify.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sportify.config.AuthRateLimitFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthRateLimitFilterTest {
+
+    private static final String LOGIN = "{\"email\":\"victim@example.com\",\"password\":\"secret\"}";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private AuthRateLimitFilter filter;
+
+    // What the next filter saw: how often it ran and the body it read
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicReference<byte[]> seenBody = new AtomicReference<>();
+    private final FilterChain chain = (req, res) -> {
+        passed.incrementAndGet();
+        seenBody.set(req.getInputStream().readAllBytes());
+    };
+
+    @BeforeEach
+    void setUp() {
+        AuthRateLimiter limiter = new AuthRateLimiter();
+        ReflectionTestUtils.setField(limiter, "ipRequests", 1);
+        ReflectionTestUtils.setField(limiter, "ipPeriodMillis", 60000L);
+        ReflectionTestUtils.setField(limiter, "emailRequests", 1);
+        ReflectionTestUtils.setField(limiter, "emailPeriodMillis", 30000L);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 1000L);
+        ReflectionTestUtils.setField(limiter, "ticker", (Ticker) nanos::get);
+        limiter.init();
+
+        filter = new AuthRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "rateLimiter", limiter);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest post(String ip, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    // Transfer-Encoding: chunked, so no Content-Length is known up front
+    private static MockHttpServletRequest chunked(String ip, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private MockHttpServletResponse send(HttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void rejectedRequestGets429WithRetryAfterAndNeverReachesTheChain() throws Exception {
+        assertEquals(200, send(post("10.0.0.1", bytes(LOGIN))).getStatus());
+
+        MockHttpServletResponse rejected = send(post("10.0.0.1", bytes("{\"email\":\"other@example.com\"}")));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader("Retry-After"));
+        assertEquals("application/json", rejected.getContentType());
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() throws Exception {
+        send(post("10.0.0.1", bytes(LOGIN)));
+        nanos.addAndGet(59_500_000_000L);
+        assertEquals("1", send(post("10.0.0.1", bytes(LOGIN))).getHeader("Retry-After"));
+    }
+
+    @Test
+    void chunkedBodyIsInspectedForEmailAndReplayedIntact() throws Exception {
+        assertEquals(200, send(chunked("10.0.0.1", bytes(LOGIN))).getStatus());
+        assertArrayEquals(bytes(LOGIN), seenBody.get());
+
+        // Same email from another IP: the per-email bucket saw the chunked body
+        MockHttpServletResponse rejected = send(chunked("10.0.0.2", bytes(LOGIN)));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    void oversizedChunkedBodyIsReplayedInFullWithoutEmailCheck() throws Exception {
+        String padding = "x".repeat(10_000);
+        byte[] body = bytes("{\"email\":\"victim@example.com\",\"pad\":\"" + padding + "\"}");
+
+        assertEquals(200, send(chunked("10.0.0.1", body)).getStatus());
+        assertArrayEquals(body, seenBody.get());
+        // Not parsed, so no email token was spent
+        assertEquals(200, send(post("10.0.0.2", bytes(LOGIN))).getStatus());
+    }
+
+    @Test
+    void bodyExactlyAtTheCapIsStillInspected() throws Exception {
+        String prefix = "{\"email\":\"victim@example.com\",\"pad\":\"";
+        byte[] body = bytes(prefix + "x".repeat(4096 - prefix.length() - 2) + "\"}");
+        assertEquals(4096, body.length);
+
+        assertEquals(200, send(chunked("10.0.0.1", body)).getStatus());
+        assertArrayEquals(body, seenBody.get());
+        assertEquals(429, send(post("10.0.0.2", bytes(LOGIN))).getStatus());
+    }
+
+    @Test
+    void declaredLargeBodyIsPassedThroughUnread() throws Exception {
+        byte[] body = bytes("{\"email\":\"victim@example.com\",\"pad\":\"" + "x".repeat(5000) + "\"}");
+        MockHttpServletRequest request = post("10.0.0.1", body);
+
+        send(request);
+        assertArrayEquals(body, seenBody.get());
+        assertEquals(200, send(post("10.0.0.2", bytes(LOGIN))).getStatus());
+    }
+
+    @Test
+    void replayedBodySupportsReaderAndReadListener() throws Exception {
+        AtomicReference<String> viaReader = new AtomicReference<>();
+        filter.doFilter(chunked("10.0.0.1", bytes(LOGIN)), new MockHttpServletResponse(),
+                (req, res) -> viaReader.set(req.getReader().readLine()));
+        assertEquals(LOGIN, viaReader.get());
+
+        ByteArrayOutputStream viaListener = new ByteArrayOutputStream();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        filter.doFilter(chunked("10.0.0.2", bytes("{\"email\":\"b@example.com\"}")), new MockHttpServletResponse(),
+                (req, res) -> {
+                    ServletInputStream in = req.getInputStream();
+                    in.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            byte[] buf = new byte[8];
+                            int n;
+                            while (in.isReady() && (n = in.read(buf)) != -1) {
+                                viaListener.write(buf, 0, n);
+                            }
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            error.set(t);
+                        }
+                    });
+                    assertTrue(in.isFinished());
+                });
+        assertNull(error.get());
+        assertEquals("{\"email\":\"b@example.com\"}", viaListener.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void nonAuthAndNonPostRequestsAreNotThrottled() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest products = new MockHttpServletRequest("POST", "/api/cart/add");
+            products.setRemoteAddr("10.0.0.1");
+            assertEquals(200, send(products).getStatus());
+            MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/auth/me");
+            get.setRemoteAddr("10.0.0.1");
+            assertEquals(200, send(get).getStatus());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sportify.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private AuthRateLimiter limiter(int ipRequests, int emailRequests, long maxKeys) {
+        AuthRateLimiter limiter = new AuthRateLimiter();
+        ReflectionTestUtils.setField(limiter, "ipRequests", ipRequests);
+        ReflectionTestUtils.setField(limiter, "ipPeriodMillis", 60000L);
+        ReflectionTestUtils.setField(limiter, "emailRequests", emailRequests);
+        ReflectionTestUtils.setField(limiter, "emailPeriodMillis", 60000L);
+        ReflectionTestUtils.setField(limiter, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(limiter, "ticker", (Ticker) nanos::get);
+        limiter.init();
+        return limiter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, RateLimitBucket> buckets(AuthRateLimiter limiter, String field) {
+        Cache<String, RateLimitBucket> cache = (Cache<String, RateLimitBucket>) ReflectionTestUtils.getField(limiter, field);
+        cache.cleanUp();
+        return cache;
+    }
+
+    @Test
+    void emailBucketIsSharedAcrossIpsAndCase() {
+        AuthRateLimiter limiter = limiter(100, 2, 1000);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "Victim@Example.com"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", "victim@example.com"));
+        assertEquals(30000, limiter.tryAcquire("10.0.0.3", "VICTIM@example.com"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.3", "someone@example.com"));
+        assertEquals(3, limiter.getAdmittedCount());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    void ipBucketRejectsBeforeSpendingAnEmailToken() {
+        AuthRateLimiter limiter = limiter(1, 1, 1000);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "a@example.com"));
+        assertEquals(60000, limiter.tryAcquire("10.0.0.1", "b@example.com"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", "b@example.com"));
+    }
+
+    @Test
+    void distinctKeyFloodIsBoundedByMaxKeys() {
+        AuthRateLimiter limiter = limiter(5, 5, 50);
+        for (int i = 0; i < 5000; i++) {
+            limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256), "user" + i + "@example.com");
+        }
+        assertTrue(buckets(limiter, "ipBuckets").estimatedSize() <= 50);
+        assertTrue(buckets(limiter, "emailBuckets").estimatedSize() <= 50);
+    }
+
+    @Test
+    void idleBucketsExpireAfterOnePeriodAndStartFull() {
+        AuthRateLimiter limiter = limiter(1, 10, 1000);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", null));
+        assertTrue(limiter.tryAcquire("10.0.0.1", null) > 0);
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(60001));
+        assertEquals(0, buckets(limiter, "ipBuckets").estimatedSize());
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", null));
+    }
+}
@@ -0,0 +1,76 @@
+package com.sportify.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsBurstOfCapacityThenAsksToWaitOneInterval() {
+        RateLimitBucket bucket = new RateLimitBucket(10, 10 * SECOND);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertEquals(SECOND, bucket.tryAcquire(0));
+        // Rejections do not push the next token further out
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        RateLimitBucket bucket = new RateLimitBucket(10, 10 * SECOND);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryAcquire(0);
+        }
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+        // An idle bucket refills to its capacity and no further
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        }
+        assertTrue(bucket.tryAcquire(60 * SECOND) > 0);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        int threads = 8;
+        RateLimitBucket bucket = new RateLimitBucket(100, 60 * SECOND);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(100, admitted);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
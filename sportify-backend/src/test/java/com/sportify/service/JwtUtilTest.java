@@ -0,0 +1,70 @@
+package com.sportify.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sportify.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwtUtilTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwtUtil jwtUtil(long expirationMillis, long cacheTtlMillis) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-test-secret-test-secret-test-secret");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expirationMillis);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtl", cacheTtlMillis);
+        ReflectionTestUtils.setField(jwtUtil, "ticker", (Ticker) nanos::get);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // Signature checks so far, i.e. cache misses
+    private long verifications() {
+        return meterRegistry.get("sportify.jwt.verify").timer().count();
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("jwt@sportify.test");
+        return user;
+    }
+
+    @Test
+    void cachedClaimsExpireAtTokenExpBeforeCacheTtl() {
+        // Token lives 60 s, the cache would keep it for an hour
+        JwtUtil jwtUtil = jwtUtil(60_000, 3_600_000);
+        String token = jwtUtil.generateToken(user());
+
+        jwtUtil.parseClaims(token);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        jwtUtil.parseClaims(token);
+        assertEquals(1, verifications(), "second parse within exp is a cache hit");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        jwtUtil.parseClaims(token);
+        assertEquals(2, verifications(), "past exp the cached claims must be gone and the token re-verified");
+    }
+
+    @Test
+    void cacheTtlCapsLongLivedTokens() {
+        JwtUtil jwtUtil = jwtUtil(3_600_000, 60_000);
+        String token = jwtUtil.generateToken(user());
+
+        jwtUtil.parseClaims(token);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        jwtUtil.parseClaims(token);
+        assertEquals(2, verifications());
+    }
+}
@@ -0,0 +1,147 @@
+package com.sportify.service;
+
+import com.sportify.controller.OrderController;
+import com.sportify.entity.Order;
+import com.sportify.entity.User;
+import com.sportify.model.MessageResponse;
+import com.sportify.model.OrderHistoryPage;
+import com.sportify.model.OrderSummary;
+import com.sportify.model.UserPrincipal;
+import com.sportify.repository.OrderRepository;
+import com.sportify.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "app.cart.write-behind.journal-dir=target/test-cart-journal",
+    // Tests must never reach SendGrid
+    "app.email.transport=stub",
+    // Keep the pipeline away from the orders under test
+    "app.orders.pipeline.poll-interval=3600000"
+})
+class OrderHistoryCursorTest {
+
+    private static final LocalDateTime TIE = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+    private List<Long> expectedIds;
+
+    @BeforeEach
+    void createOrders() {
+        User user = newUser();
+        principal = new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), true);
+        expectedIds = new ArrayList<>();
+        // Five orders sharing one createdAt, so only id orders them, plus an older one
+        for (int i = 0; i < 6; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setOrderNumber("CUR-" + System.nanoTime() + "-" + i);
+            order = orderRepository.save(order);
+            LocalDateTime createdAt = i == 0 ? TIE.minusDays(1) : TIE;
+            jdbcTemplate.update("update orders set created_at = ? where id = ?", Timestamp.valueOf(createdAt), order.getId());
+            expectedIds.add(order.getId());
+        }
+        // Newest first: tied rows by id desc, then the older order
+        Long older = expectedIds.remove(0);
+        expectedIds.sort(Comparator.reverseOrder());
+        expectedIds.add(older);
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setEmail("cursor-" + System.nanoTime() + "@sportify.test");
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    @Test
+    void cursorWalksTiedRowsOnceInOrder() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderHistoryPage page = orderService.getOrderHistory(principal, cursor, 2);
+            for (OrderSummary order : page.orders()) {
+                seen.add(order.id());
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expectedIds, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        OrderHistoryPage page = orderService.getOrderHistory(principal, null, 10);
+        assertEquals(6, page.orders().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("%%%not-base64", encode("no-separator"), encode("yesterday|5"),
+                encode(TIE + "|five"), encode(TIE + "|5|6"))) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> orderService.getOrderHistory(principal, cursor, 2), cursor);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        ResponseEntity<?> response = orderController.getMyOrders(principal, encode("yesterday|5"), null);
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals("Invalid cursor", assertInstanceOf(MessageResponse.class, response.getBody()).getMessage());
+    }
+
+    @Test
+    void tamperedCursorOnlyEverReturnsOwnOrders() {
+        // A well-formed cursor with a position the server never issued
+        String cursor = encode(TIE.plusYears(10) + "|" + Long.MAX_VALUE);
+        OrderHistoryPage page = orderService.getOrderHistory(principal, cursor, 10);
+        assertEquals(expectedIds, page.orders().stream().map(OrderSummary::id).toList());
+
+        User other = newUser();
+        UserPrincipal stranger = new UserPrincipal(other.getId(), other.getEmail(), other.getRole(), true);
+        assertTrue(orderService.getOrderHistory(stranger, cursor, 10).orders().isEmpty());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
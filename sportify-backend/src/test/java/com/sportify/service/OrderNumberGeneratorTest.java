@@ -0,0 +1,78 @@
+package com.sportify.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void concurrentGenerationNeverDuplicates() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[THREADS];
+            long[][] perThread = new long[THREADS][IDS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                long[] ids = perThread[t];
+                futures[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                long[] ids = perThread[t];
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "ids must increase within a thread");
+                }
+                System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertNotEquals(all[i - 1], all[i], "duplicate id");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        OrderNumberGenerator a = new OrderNumberGenerator(1);
+        OrderNumberGenerator b = new OrderNumberGenerator(2);
+        for (int i = 0; i < 100_000; i++) {
+            long idA = a.nextId();
+            long idB = b.nextId();
+            assertEquals(1, (idA >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+            assertEquals(2, (idB >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(-1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.sportify.service;
+
+import com.sportify.entity.OrderItem;
+import com.sportify.entity.ShippingAddress;
+import com.sportify.entity.User;
+import com.sportify.model.OrderRequest;
+import com.sportify.model.UserPrincipal;
+import com.sportify.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sportify.service.OrderServiceBatchInsertTest$InsertCounter",
+    "app.cart.write-behind.journal-dir=target/test-cart-journal",
+    // Tests must never reach SendGrid
+    "app.email.transport=stub"
+})
+class OrderServiceBatchInsertTest {
+
+    // Counts prepared INSERT statements for orders and their items; a JDBC batch is prepared once
+    public static class InsertCounter implements StatementInspector {
+        static final AtomicInteger INSERTS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            String lower = sql.toLowerCase();
+            if (lower.startsWith("insert into orders") || lower.startsWith("insert into order_items")) {
+                INSERTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    // Sizes the catalog lists as available, so each is seeded with stock
+    private static final String[] SIZES = {"UK 7", "UK 8", "UK 9", "UK 10"};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setEmail("batch-" + System.nanoTime() + "@sportify.test");
+        user.setPassword("x");
+        user = userRepository.save(user);
+        principal = new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), true);
+    }
+
+    @Test
+    void insertCountIsIndependentOfLineItems() {
+        assertEquals(2, insertsFor(1));
+        assertEquals(2, insertsFor(10));
+        assertEquals(2, insertsFor(40));
+    }
+
+    private int insertsFor(int lines) {
+        OrderRequest request = new OrderRequest();
+        ShippingAddress address = new ShippingAddress();
+        address.setFullName("Test Buyer");
+        address.setAddressLine1("1 Test Street");
+        request.setShippingAddress(address);
+        request.setTotalAmount(100.0);
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId("nike-air-max-270");
+            item.setSize(SIZES[i % SIZES.length]);
+            item.setPrice(14995.0);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+
+        InsertCounter.INSERTS.set(0);
+        orderService.createOrder(principal, request);
+        return InsertCounter.INSERTS.get();
+    }
+}
@@ -98,6 +98,7 @@ export default function CartPage() {
         },
         body: JSON.stringify({
           id: item.productId,
+          size: item.size,
           quantity: Math.max(1, newQuantity),
         }),
       });
@@ -119,7 +120,7 @@ export default function CartPage() {
     if (!item) return;
 
     try {
-      const response = await fetch(`http://localhost:8080/api/cart/remove?productId=${item.productId}`, {
+      const response = await fetch(`http://localhost:8080/api/cart/remove?productId=${encodeURIComponent(item.productId)}&size=${encodeURIComponent(item.size ?? '')}`, {
         method: 'DELETE',
         headers: {
           'Authorization': `Bearer ${token}`,
@@ -24,7 +24,7 @@ export default function Store() {
   const [modalOpen, setModalOpen] = useState(false);
 
   useEffect(() => {
-    fetch('https://cp.cosinv.com/products')
+    fetch('http://localhost:8080/api/products')
       .then(res => res.json())
       .then(data => {
         setProducts(data);